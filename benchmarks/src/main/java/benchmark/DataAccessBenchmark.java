@@ -0,0 +1,73 @@
+package benchmark;
+
+import dataaccess.DataAccessException;
+import dataaccess.InMemoryDataAccess;
+import model.AuthData;
+import model.GameData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.GameService;
+import service.UserService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls made on every authenticated request, against the in-memory data access.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataAccessBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private UserService userService;
+    private GameService gameService;
+    private String validToken;
+    private String invalidToken;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        InMemoryDataAccess dataAccess = new InMemoryDataAccess();
+        userService = new UserService(dataAccess);
+        gameService = new GameService(dataAccess);
+
+        for (int i = 0; i < size; i++) {
+            String token = UUID.randomUUID().toString();
+            dataAccess.createAuth(new AuthData(token, "user" + i));
+            dataAccess.createGame(new GameData(i, "Game " + i));
+            validToken = token;
+        }
+        invalidToken = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean isValidTokenHit() {
+        return userService.isValidToken(validToken);
+    }
+
+    @Benchmark
+    public boolean isValidTokenMiss() {
+        return userService.isValidToken(invalidToken);
+    }
+
+    @Benchmark
+    public List<GameData> listGames() throws DataAccessException {
+        return gameService.listGames();
+    }
+}
@@ -0,0 +1,122 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the rules engine calls the server makes for every move: listing valid moves,
+ * submitting a move and checking for game over.
+ * <p>
+ * The game memoizes status and legal moves per position, and the position here never changes,
+ * so each query is measured twice: cold, with the cache dropped first as after a new move, and
+ * cached, as for repeated queries of one position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"opening", "italian", "middlegame", "tactical", "endgame", "checkmate"})
+    public String position;
+
+    private ChessGame game;
+    private List<ChessPosition> squares;
+    private ChessMove move;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = Fen.parse(Positions.FEN.get(position));
+
+        // Squares of the side to move, as a client would query them
+        squares = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int column = 1; column <= 8; column++) {
+                ChessPosition square = new ChessPosition(row, column);
+                ChessPiece piece = game.getBoard().getPiece(square);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    squares.add(square);
+                    if (move == null && !game.validMoves(square).isEmpty()) {
+                        move = game.validMoves(square).iterator().next();
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        invalidateCache();
+        for (ChessPosition square : squares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public void validMovesAllPiecesCached(Blackhole blackhole) {
+        for (ChessPosition square : squares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public void makeMove() throws InvalidMoveException {
+        if (move == null) {
+            return; // Game over; there is nothing to submit
+        }
+        game.makeMove(move);
+        game.undoMove();
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        invalidateCache();
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean gameOverStatus() {
+        invalidateCache();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        return game.isInCheckmate(turn) || game.isInStalemate(turn);
+    }
+
+    @Benchmark
+    public boolean gameOverStatusCached() {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        return game.isInCheckmate(turn) || game.isInStalemate(turn);
+    }
+
+    // Setting the turn drops the memoized status and moves, as any change to the game does
+    private void invalidateCache() {
+        game.setTeamTurn(game.getTeamTurn());
+    }
+}
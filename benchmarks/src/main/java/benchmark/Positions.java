@@ -0,0 +1,20 @@
+package benchmark;
+
+import java.util.Map;
+
+/**
+ * Corpus of realistic positions shared by the chess benchmarks, keyed by the names used in {@code @Param}.
+ */
+final class Positions {
+
+    static final Map<String, String> FEN = Map.of(
+            "opening", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+            "italian", "r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/3P1N2/PPP2PPP/RNBQK2R w - - 0 5",
+            "middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "tactical", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w - - 0 1",
+            "endgame", "8/2p5/3p4/KP5r/1R3p2/4P1k1/6P1/8 w - - 0 1",
+            "checkmate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3");
+
+    private Positions() {
+    }
+}
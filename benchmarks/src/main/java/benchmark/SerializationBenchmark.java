@@ -0,0 +1,96 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import com.google.gson.Gson;
+import model.GameData;
+import model.ListGameResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips of the objects the server and client exchange.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000"})
+    public int gameCount;
+
+    private final Gson gson = new Gson();
+
+    private ChessGame game;
+    private String gameJson;
+    private GameData gameData;
+    private String gameDataJson;
+    private ListGameResponse listResponse;
+    private String listResponseJson;
+
+    @Setup
+    public void setUp() {
+        game = Fen.parse(Positions.FEN.get("middlegame"));
+        gameJson = gson.toJson(game);
+
+        gameData = new GameData(1234, "Benchmark Game");
+        gameData.setWhiteUsername("white");
+        gameData.setBlackUsername("black");
+        gameDataJson = gson.toJson(gameData);
+
+        List<GameData> games = new ArrayList<>(gameCount);
+        for (int i = 0; i < gameCount; i++) {
+            GameData data = new GameData(i, "Game " + i);
+            data.setWhiteUsername("white" + i);
+            games.add(data);
+        }
+        listResponse = new ListGameResponse(games);
+        listResponseJson = gson.toJson(listResponse);
+    }
+
+    @Benchmark
+    public ChessGame chessGameRoundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame chessGameDeserialize() {
+        return gson.fromJson(gameJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public GameData gameDataRoundTrip() {
+        return gson.fromJson(gson.toJson(gameData), GameData.class);
+    }
+
+    @Benchmark
+    public GameData gameDataDeserialize() {
+        return gson.fromJson(gameDataJson, GameData.class);
+    }
+
+    @Benchmark
+    public ListGameResponse listGamesRoundTrip() {
+        return gson.fromJson(gson.toJson(listResponse), ListGameResponse.class);
+    }
+
+    @Benchmark
+    public ListGameResponse listGamesDeserialize() {
+        return gson.fromJson(listResponseJson, ListGameResponse.class);
+    }
+}
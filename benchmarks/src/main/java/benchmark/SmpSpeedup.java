@@ -0,0 +1,68 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures Lazy SMP time-to-depth: how long {@link ParallelSearch} takes to complete a fixed
+ * depth with 1, 2, 4, ... threads, and the speedup of each thread count over one thread.
+ * Time-to-depth is a single-shot measurement, so this runs outside JMH. Each search starts
+ * from a cleared table, and the median of several runs is reported per position.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar benchmark.SmpSpeedup [depth] [maxThreads] [runs]}
+ */
+public class SmpSpeedup {
+
+    private static final String[] POSITIONS = {"opening", "italian", "middlegame", "tactical", "endgame"};
+    private static final int HASH_MEGABYTES = 64;
+
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int runs = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        // Warm up the JIT so the single-thread baseline is not penalized for running first
+        timeToDepth(new ParallelSearch(1, new TranspositionTable(HASH_MEGABYTES)), POSITIONS[0], depth - 1, 2);
+
+        System.out.printf("Time to depth %d, median of %d runs%n", depth, runs);
+        System.out.printf("%-12s %8s %12s %8s%n", "position", "threads", "ms", "speedup");
+        for (String position : POSITIONS) {
+            double baseline = 0;
+            for (int threads : threadCounts) {
+                ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(HASH_MEGABYTES));
+                double millis = timeToDepth(search, position, depth, runs);
+                if (threads == 1) {
+                    baseline = millis;
+                }
+                System.out.printf("%-12s %8d %12.1f %7.2fx%n", position, threads, millis, baseline / millis);
+            }
+        }
+    }
+
+    // Median wall-clock milliseconds to complete the given depth, each run from an empty table
+    private static double timeToDepth(ParallelSearch search, String position, int depth, int runs) {
+        double[] times = new double[runs];
+        for (int run = 0; run < runs; run++) {
+            ChessGame game = Fen.parse(Positions.FEN.get(position));
+            search.getTable().clear();
+            long start = System.nanoTime();
+            search.search(game, SearchLimits.depth(depth));
+            times[run] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+}
@@ -0,0 +1,165 @@
+package chess;
+
+/**
+ * Attack lookups shared by move generation and check detection.
+ * <p>
+ * Knight, king and pawn attacks are read from per-square tables, so a leaper's targets are a
+ * single array load with no edge checks.
+ * <p>
+ * Rook and bishop attacks come from magic bitboard tables: the blockers on a slider's
+ * relevant rays are multiplied by a per-square magic number, and the top bits of the product
+ * index a table holding the attack set for that blocker pattern. Queens combine both. The
+ * tables are filled once at class load, so each lookup is a mask, a multiply, a shift and a load.
+ * <p>
+ * Squares are numbered 0-63 from row 1, column 1 (see {@link Move}).
+ */
+public final class Attacks {
+
+    // Collision-free multipliers found offline by a random search over sparse 64-bit numbers
+    private static final long[] ROOK_MAGICS = {
+            0xA080028098400120L, 0x00C0001009402000L, 0x010010200041000AL, 0x1080040800801000L,
+            0x2080080002040080L, 0x0B00040012080D00L, 0x0200010084080200L, 0x020000844C010022L,
+            0x0800802040008000L, 0x8141004000208100L, 0x1003002000410011L, 0x0009001000A10900L,
+            0x0200808008000400L, 0x0031000804008300L, 0x2144000802041001L, 0x0081001068820100L,
+            0x0080004000402000L, 0x0010004000200040L, 0x0010410020030810L, 0x1810004040080400L,
+            0x0008008004008008L, 0x0000080140100420L, 0x1001010100020004L, 0x400012000455088CL,
+            0x0080004040002010L, 0x1000400080802000L, 0x0003044500142000L, 0x0540240900100100L,
+            0x400C001101000800L, 0x0000200801044010L, 0x0408020400081001L, 0x2000090200088044L,
+            0x8000804004800028L, 0x0002010022004080L, 0x8802001086002241L, 0x0880082501001000L,
+            0x0000040082800800L, 0xA800040080800200L, 0x40A0300144008208L, 0x40088000C2800500L,
+            0x0800204001918000L, 0x5100410082020020L, 0x0C00100020008080L, 0x0810100009010020L,
+            0x280C080101110004L, 0x9060040002008080L, 0x0800281001340002L, 0x4008009C00420005L,
+            0x0840250880104100L, 0x0040004080200080L, 0x00100483B0200080L, 0x8044084200102200L,
+            0x0380040080080080L, 0x001C040002008080L, 0x0288022108300400L, 0x0000008054010200L,
+            0x0003084110218001L, 0x048140010822B083L, 0x2000120A40200101L, 0x0021210410000901L,
+            0x000200310824A002L, 0x5001009A28040005L, 0x801800B01102080CL, 0x20400407102080C2L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x1070024888008500L, 0x009290020A164202L, 0x001010808D001000L, 0x10280A04A9300000L,
+            0x04045040040A4482L, 0x0000900421104002L, 0x0200841402422800L, 0x0002420080884004L,
+            0x0000840404B40C00L, 0x0C0010900CA28088L, 0x000A084809022003L, 0x1400041062030210L,
+            0x0021040420010080L, 0x00000A0190080420L, 0xA600840108090440L, 0x8180021100880420L,
+            0x0520002408460860L, 0x121800041000C60BL, 0x401004C200220020L, 0x1010400824004000L,
+            0x2144021200A21010L, 0x081200090100C207L, 0x00040A0880882880L, 0x0052440202208421L,
+            0x0408200140044141L, 0x00A9249008100400L, 0x02440100C0820081L, 0x0820104088004040L,
+            0x8050040000802100L, 0x009043000202A200L, 0x0054040424422210L, 0x1304090008288201L,
+            0x1010088A28200201L, 0x0A52100408020881L, 0x0800404041081200L, 0x4401020080080082L,
+            0x0118020400001100L, 0x8002020409020080L, 0x0008080120084100L, 0x1024C10209004201L,
+            0x0020A22060001110L, 0x0132011082010814L, 0x0400220030011200L, 0x0800804010400200L,
+            0x2100280304000110L, 0x80401800AD000020L, 0x0420020081304A01L, 0x0001224400400100L,
+            0x8300610420200000L, 0x9100490401604000L, 0x0960814A08904002L, 0x0800080020880000L,
+            0x0040106052540060L, 0x0100092008408404L, 0xA088421002020A88L, 0x82301040AA808081L,
+            0x0002022404024880L, 0x1200110880842060L, 0x0000040042209000L, 0x0000A22000A09828L,
+            0x000300C420020480L, 0x0000214820082222L, 0x0100410288020080L, 0x01280A00CA040900L
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // Indexed by color ordinal * 64 + square
+    private static final long[] PAWN_ATTACKS = new long[2 * 64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    private static final long EDGE_RANKS = Bitboards.RANK_1 | Bitboards.RANK_8;
+    private static final long EDGE_FILES = Bitboards.FILE_A | Bitboards.FILE_H;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long from = Bitboards.bit(square);
+            KNIGHT_ATTACKS[square] = Bitboards.knightAttacks(from);
+            KING_ATTACKS[square] = Bitboards.kingAttacks(from);
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                PAWN_ATTACKS[color.ordinal() * 64 + square] = Bitboards.pawnAttacks(from, color);
+            }
+        }
+        ROOK_TABLE = buildTable(true, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = buildTable(false, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+    }
+
+    private Attacks() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @param square The pawn's square (0-63)
+     * @param color  The pawn's team
+     * @return The two (or one, on an edge file) diagonal squares the pawn captures on
+     */
+    public static long pawnAttacks(int square, ChessGame.TeamColor color) {
+        return PAWN_ATTACKS[color.ordinal() * 64 + square];
+    }
+
+    /**
+     * @param square   The rook's square (0-63)
+     * @param occupied Bitboard of every occupied square
+     * @return Squares the rook attacks, including the first blocker in each direction
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSETS[square]
+                + (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * @param square   The bishop's square (0-63)
+     * @param occupied Bitboard of every occupied square
+     * @return Squares the bishop attacks, including the first blocker in each direction
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[square]
+                + (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    // Computes each square's relevant-blocker mask and fills the shared table for every blocker subset
+    private static long[] buildTable(boolean rook, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            long from = Bitboards.bit(square);
+            if (rook) {
+                // Edge squares never block anything beyond them, except along the slider's own rank or file
+                long edges = (EDGE_RANKS & ~(Bitboards.RANK_1 << (square & ~7)))
+                        | (EDGE_FILES & ~(Bitboards.FILE_A << (square & 7)));
+                masks[square] = Bitboards.rookAttacks(from, 0) & ~edges;
+            } else {
+                masks[square] = Bitboards.bishopAttacks(from, 0) & ~(EDGE_RANKS | EDGE_FILES);
+            }
+            shifts[square] = 64 - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            long from = Bitboards.bit(square);
+            long mask = masks[square];
+
+            // Enumerate every subset of the mask with the carry-rippler trick
+            long subset = 0;
+            do {
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                table[offsets[square] + index] = rook
+                        ? Bitboards.rookAttacks(from, subset) : Bitboards.bishopAttacks(from, subset);
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+        return table;
+    }
+}
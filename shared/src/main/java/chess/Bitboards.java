@@ -0,0 +1,154 @@
+package chess;
+
+/**
+ * Bitboard constants and mask arithmetic shared by the board, the pieces and the game.
+ * <p>
+ * Squares are numbered 0-63 with bit 0 being row 1, column 1 and bit 63 being row 8, column 8,
+ * so moving one row up is a shift of 8 and moving one column right is a shift of 1.
+ */
+final class Bitboards {
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = 0x8080808080808080L;
+    static final long NOT_FILE_A = ~FILE_A;
+    static final long NOT_FILE_H = ~FILE_H;
+    static final long NOT_FILE_AB = ~(FILE_A | (FILE_A << 1));
+    static final long NOT_FILE_GH = ~(FILE_H | (FILE_H >>> 1));
+    static final long RANK_1 = 0x00000000000000FFL;
+    static final long RANK_3 = RANK_1 << 16;
+    static final long RANK_6 = RANK_1 << 40;
+    static final long RANK_8 = RANK_1 << 56;
+
+    // Ray directions, as rotate distances with the masks that stop a ray wrapping around the board
+    private static final int NORTH_EAST = 0;
+    private static final int EAST = 1;
+    private static final int SOUTH_EAST = 2;
+    private static final int SOUTH = 3;
+    private static final int SOUTH_WEST = 4;
+    private static final int WEST = 5;
+    private static final int NORTH_WEST = 6;
+    private static final int NORTH = 7;
+
+    private static final int[] SHIFTS = {9, 1, -7, -8, -9, -1, 7, 8};
+    private static final long[] AVOID_WRAP = {
+            0xfefefefefefefe00L, 0xfefefefefefefefeL, 0x00fefefefefefefeL, 0x00ffffffffffffffL,
+            0x007f7f7f7f7f7f7fL, 0x7f7f7f7f7f7f7f7fL, 0x7f7f7f7f7f7f7f00L, 0xffffffffffffff00L
+    };
+
+    // Squares strictly between two aligned squares, and the full line through them (0 when not aligned)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int a = 0; a < 64; a++) {
+            long from = bit(a);
+            long rookRays = rookAttacks(from, 0);
+            long bishopRays = bishopAttacks(from, 0);
+            for (int b = 0; b < 64; b++) {
+                long to = bit(b);
+                if ((rookRays & to) != 0) {
+                    BETWEEN[a][b] = rookAttacks(from, to) & rookAttacks(to, from);
+                    LINE[a][b] = (rookRays & rookAttacks(to, 0)) | from | to;
+                } else if ((bishopRays & to) != 0) {
+                    BETWEEN[a][b] = bishopAttacks(from, to) & bishopAttacks(to, from);
+                    LINE[a][b] = (bishopRays & bishopAttacks(to, 0)) | from | to;
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    // Converts a 1-based row and column into a square index
+    static int square(int row, int column) {
+        return ((row - 1) << 3) | (column - 1);
+    }
+
+    // Square index of a position from the public API; a row or column outside 1-8 would alias another square
+    static int square(ChessPosition position) {
+        if (!isOnBoard(position)) {
+            throw new ArrayIndexOutOfBoundsException("Error: Position " + position.getRow() + ","
+                    + position.getColumn() + " is off the board");
+        }
+        return square(position.getRow(), position.getColumn());
+    }
+
+    static boolean isOnBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    // Set-wise leaper attacks used to fill the per-square tables in Attacks
+    static long knightAttacks(long knights) {
+        long l1 = (knights >>> 1) & NOT_FILE_H;
+        long l2 = (knights >>> 2) & NOT_FILE_GH;
+        long r1 = (knights << 1) & NOT_FILE_A;
+        long r2 = (knights << 2) & NOT_FILE_AB;
+        long h1 = l1 | r1;
+        long h2 = l2 | r2;
+        return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+    }
+
+    static long kingAttacks(long kings) {
+        long attacks = ((kings << 1) & NOT_FILE_A) | ((kings >>> 1) & NOT_FILE_H);
+        long row = kings | attacks;
+        return attacks | (row << 8) | (row >>> 8);
+    }
+
+    // Squares attacked diagonally by the given pawns; pawns never attack straight ahead
+    static long pawnAttacks(long pawns, ChessGame.TeamColor color) {
+        if (color == ChessGame.TeamColor.WHITE) {
+            return ((pawns << 9) & NOT_FILE_A) | ((pawns << 7) & NOT_FILE_H);
+        }
+        return ((pawns >>> 7) & NOT_FILE_A) | ((pawns >>> 9) & NOT_FILE_H);
+    }
+
+    // Single and double pushes of the given pawns onto empty squares
+    static long pawnPushes(long pawns, ChessGame.TeamColor color, long empty) {
+        if (color == ChessGame.TeamColor.WHITE) {
+            long single = (pawns << 8) & empty;
+            return single | (((single & RANK_3) << 8) & empty);
+        }
+        long single = (pawns >>> 8) & empty;
+        return single | (((single & RANK_6) >>> 8) & empty);
+    }
+
+    // Set-wise slider attacks; single-square lookups should use the Attacks tables, which are built from these
+    static long rookAttacks(long rooks, long occupied) {
+        long empty = ~occupied;
+        return slidingAttacks(rooks, empty, NORTH) | slidingAttacks(rooks, empty, SOUTH)
+                | slidingAttacks(rooks, empty, EAST) | slidingAttacks(rooks, empty, WEST);
+    }
+
+    static long bishopAttacks(long bishops, long occupied) {
+        long empty = ~occupied;
+        return slidingAttacks(bishops, empty, NORTH_EAST) | slidingAttacks(bishops, empty, NORTH_WEST)
+                | slidingAttacks(bishops, empty, SOUTH_EAST) | slidingAttacks(bishops, empty, SOUTH_WEST);
+    }
+
+    // Kogge-Stone fill of every slider along one direction, stopping on (and including) the first blocker
+    private static long slidingAttacks(long sliders, long empty, int direction) {
+        int shift = SHIFTS[direction];
+        long propagator = empty & AVOID_WRAP[direction];
+        long generator = sliders;
+        generator |= propagator & Long.rotateLeft(generator, shift);
+        propagator &= Long.rotateLeft(propagator, shift);
+        generator |= propagator & Long.rotateLeft(generator, shift << 1);
+        propagator &= Long.rotateLeft(propagator, shift << 1);
+        generator |= propagator & Long.rotateLeft(generator, shift << 2);
+        return Long.rotateLeft(generator, shift) & AVOID_WRAP[direction];
+    }
+}
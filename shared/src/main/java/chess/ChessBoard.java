@@ -1,58 +1,274 @@
 package chess;
 ///Initialize Phase 3
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * Manages the chess board and the placement of chess pieces.
+ * <p>
+ * Pieces are kept both in a 64-square array for direct lookup and in one bitboard
+ * per color and piece type, so move generation and attack tests can work on whole
+ * sets of squares at once.
  */
+@JsonAdapter(ChessBoard.GsonAdapter.class)
 public class ChessBoard {
-    private final ChessPiece[][] squares = new ChessPiece[8][8];
+    private static final int PIECE_TYPES = ChessPiece.PieceType.values().length;
+
+    // Phase of a board with every piece present, see getPhase
+    public static final int MAX_PHASE = PieceSquareTables.MAX_PHASE;
+
+    private final ChessPiece[] squares = new ChessPiece[64];
+    private final long[] pieceBitboards = new long[2 * PIECE_TYPES];
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+
+    // Square of each team's king, or -1 when that team has no king on the board
+    private final int[] kingSquares = {-1, -1};
+
+    // Zobrist key of the piece placement, updated by every addPiece
+    private long zobristKey;
+
+    // Material and piece-square totals and game phase, updated by every addPiece (see PieceSquareTables)
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
 
     public ChessBoard() {
         // Initialize empty board
     }
 
+    /**
+     * Creates an independent copy of another board, including its tracked king squares.
+     *
+     * @param other The board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        occupied = other.occupied;
+        zobristKey = other.zobristKey;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+    }
+
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(Bitboards.square(position), piece);
+    }
+
+    // Places a piece (or null to clear) on a square index, keeping every bitboard in step
+    void addPiece(int square, ChessPiece piece) {
+        long mask = Bitboards.bit(square);
+
+        // Clear whatever currently occupies the square
+        ChessPiece previous = squares[square];
+        if (previous != null) {
+            pieceBitboards[bitboardIndex(previous.getTeamColor(), previous.getPieceType())] &= ~mask;
+            colorBitboards[previous.getTeamColor().ordinal()] &= ~mask;
+            occupied &= ~mask;
+            zobristKey ^= Zobrist.pieceKey(previous, square);
+            middlegameScore -= PieceSquareTables.middlegame(previous, square);
+            endgameScore -= PieceSquareTables.endgame(previous, square);
+            phase -= PieceSquareTables.phase(previous);
+        }
+
+        squares[square] = piece;
+        if (piece != null) {
+            pieceBitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= mask;
+            colorBitboards[piece.getTeamColor().ordinal()] |= mask;
+            occupied |= mask;
+            zobristKey ^= Zobrist.pieceKey(piece, square);
+            middlegameScore += PieceSquareTables.middlegame(piece, square);
+            endgameScore += PieceSquareTables.endgame(piece, square);
+            phase += PieceSquareTables.phase(piece);
+        }
+
+        if (previous != null && previous.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(previous.getTeamColor());
+        }
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+
+    // Tracks the lowest king square of a team, matching a row-by-row scan from row 1
+    private void updateKingSquare(ChessGame.TeamColor color) {
+        long kings = pieceBitboards[bitboardIndex(color, ChessPiece.PieceType.KING)];
+        kingSquares[color.ordinal()] = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    /**
+     * Finds the king of the given team in constant time.
+     *
+     * @param color The team whose king to find
+     * @return The position of the king, or null if that team has no king on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return (square < 0) ? null : ChessPosition.of(square);
+    }
+
+    // Square index of the team's king, or -1 if it has none
+    int kingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of the piece placement. Boards with the same pieces on
+     * the same squares have the same key; it is maintained incrementally by {@link #addPiece}.
+     *
+     * @return The placement key
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    // Material plus piece-square total for the middlegame, from white's point of view
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    // Material plus piece-square total for the endgame, from white's point of view
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Returns how far the game is from the endgame, from the non-pawn material on the board:
+     * 24 with every piece present (knights and bishops count 1, rooks 2, queens 4) down to 0
+     * with only kings and pawns. Extra material from promotions is capped at 24.
+     *
+     * @return The game phase, 0 to 24
+     */
+    public int getPhase() {
+        return Math.min(phase, PieceSquareTables.MAX_PHASE);
     }
 
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        return squares[Bitboards.square(position)];
+    }
+
+    // Piece on a square numbered as in Move, or null
+    public ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Checks whether any piece of the given team attacks a square, by looking up the
+     * knight, king and pawn attacks and the rook and bishop rays from the square.
+     *
+     * @param position The square to test
+     * @param byColor  The attacking team
+     * @return true if a piece of that team attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(Bitboards.square(position), byColor);
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(square, byColor, occupied);
+    }
+
+    // Attack test against a caller-supplied occupancy, e.g. with a moving king lifted off the board
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor, long occupancy) {
+        int base = byColor.ordinal() * PIECE_TYPES;
+
+        // A pawn attacks the square if a pawn of the defending color on it would attack that pawn
+        if ((Attacks.pawnAttacks(square, opponent(byColor))
+                & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Attacks.knightAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Attacks.kingAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long rooks = pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        if (rooks != 0 && (Attacks.rookAttacks(square, occupancy) & rooks) != 0) {
+            return true;
+        }
+        long bishops = pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        return bishops != 0 && (Attacks.bishopAttacks(square, occupancy) & bishops) != 0;
+    }
+
+    // Bitboard of every piece of the given team that attacks the square
+    long attackersTo(int square, ChessGame.TeamColor byColor, long occupancy) {
+        int base = byColor.ordinal() * PIECE_TYPES;
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+
+        return (Attacks.pawnAttacks(square, opponent(byColor)) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Attacks.knightAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Attacks.kingAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Attacks.rookAttacks(square, occupancy) & (pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens))
+                | (Attacks.bishopAttacks(square, occupancy) & (pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens));
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    // Bitboard of every piece of the given color and type; bit n is square n as numbered in Move
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    // Bitboard of every piece of the given color
+    public long pieces(ChessGame.TeamColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    // Bitboard of every occupied square
+    public long occupancy() {
+        return occupied;
+    }
+
+    private static int bitboardIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
     }
 
     public void resetBoard() {
         // PAWNS
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         // ROOKS
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
 
         // KNIGHTS
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
 
         // BISHOPS
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
 
         // QUEENS
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
 
         // KINGS
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
     }
 
     @Override
@@ -64,12 +280,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 
     @Override
@@ -78,4 +294,82 @@ public class ChessBoard {
                 "squares=" + Arrays.toString(squares) +
                 "\n";}
 
+    /**
+     * Writes only the piece placement, as the original 8x8 {@code squares} array (row 1 first),
+     * and rebuilds the bitboards, king squares, key and evaluation totals through
+     * {@link #addPiece} when reading, so a parsed board always agrees with its pieces.
+     * Boards saved with a flat 64-entry {@code squares} array are read as well.
+     */
+    static class GsonAdapter extends TypeAdapter<ChessBoard> {
+        private final ChessPiece.GsonAdapter pieceAdapter = new ChessPiece.GsonAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            if (board == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("squares").beginArray();
+            for (int row = 0; row < 8; row++) {
+                out.beginArray();
+                for (int column = 0; column < 8; column++) {
+                    pieceAdapter.write(out, board.squares[row * 8 + column]);
+                }
+                out.endArray();
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("squares".equals(in.nextName())) {
+                    readSquares(in, board);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        private void readSquares(JsonReader in, ChessBoard board) throws IOException {
+            int square = 0;
+            in.beginArray();
+            while (in.hasNext()) {
+                if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        square = readSquare(in, board, square);
+                    }
+                    in.endArray();
+                } else {
+                    square = readSquare(in, board, square);
+                }
+            }
+            in.endArray();
+            if (square != 64) {
+                throw new IOException("Error: ChessBoard requires 64 squares");
+            }
+        }
+
+        private int readSquare(JsonReader in, ChessBoard board, int square) throws IOException {
+            if (square == 64) {
+                throw new IOException("Error: ChessBoard requires 64 squares");
+            }
+            ChessPiece piece = pieceAdapter.read(in);
+            if (piece != null) {
+                board.addPiece(square, piece);
+            }
+            return square + 1;
+        }
+    }
 }
@@ -3,16 +3,57 @@ package chess;
 /* Quality Enhancement */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * Manages the entire chess game, including moves, check, checkmate, and stalemate.
+ * <p>
+ * A game is not thread-safe. Even the queries that look read-only, such as
+ * {@link #validMoves}, {@link #isInCheck}, {@link #isLegal} and the checkmate and stalemate
+ * tests, fill a per-position cache and reuse one move generator. A game used from more than
+ * one thread, e.g. by a UI and a server connection, must be guarded by a single lock, or each
+ * thread must work on its own copy made with {@link #ChessGame(ChessGame)}.
  */
 public class ChessGame {
 
+    private static final int INITIAL_UNDO_CAPACITY = 256;
+
+    // Halfmoves without a capture or pawn move after which either side may claim a draw
+    private static final int FIFTY_MOVE_PLIES = 100;
+
+    // Bits of a memoized per-team status; zero means not yet computed for this position
+    private static final int STATUS_KNOWN = 1;
+    private static final int STATUS_CHECK = 2;
+    private static final int STATUS_HAS_MOVES = 4;
+
     private ChessBoard board;
     private TeamColor teamTurn;
+    private int halfmoveClock;
+
+    // Undo stack: one entry per move applied with doMove, preallocated and grown only when full
+    private transient int[] undoMoves = new int[INITIAL_UNDO_CAPACITY];
+    private transient ChessPiece[] undoMovedPieces = new ChessPiece[INITIAL_UNDO_CAPACITY];
+    private transient ChessPiece[] undoCapturedPieces = new ChessPiece[INITIAL_UNDO_CAPACITY];
+    private transient TeamColor[] undoTurns = new TeamColor[INITIAL_UNDO_CAPACITY];
+    // Position key and halfmove clock before each move, which double as the repetition history
+    private transient long[] undoKeys = new long[INITIAL_UNDO_CAPACITY];
+    private transient int[] undoHalfmoveClocks = new int[INITIAL_UNDO_CAPACITY];
+    private transient int undoSize;
+
+    private final transient MoveGenerator moveGenerator = new MoveGenerator();
+    private final transient MoveList moveBuffer = new MoveList();
+
+    // Check flags, status and legal moves for each team, valid while the board and its key are unchanged;
+    // written by queries, so they are one more reason a game must stay on one thread at a time
+    private transient ChessBoard cachedBoard;
+    private transient long cachedKey;
+    private final transient int[] cachedStatus = new int[2];
+    private final transient MoveList[] cachedMoves = {new MoveList(), new MoveList()};
+    private final transient boolean[] movesCached = new boolean[2];
 
     // Constructor: Initializes the board and starts with WHITE's turn
     public ChessGame() {
@@ -21,6 +62,26 @@ public class ChessGame {
         teamTurn = TeamColor.WHITE;
     }
 
+    /**
+     * Creates an independent game in the same position as another, with the same move history,
+     * so moves can be taken back and repetitions are detected on the copy as on the original.
+     *
+     * @param other The game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        teamTurn = other.teamTurn;
+        halfmoveClock = other.halfmoveClock;
+        int capacity = other.undoMoves.length;
+        undoMoves = Arrays.copyOf(other.undoMoves, capacity);
+        undoMovedPieces = Arrays.copyOf(other.undoMovedPieces, capacity);
+        undoCapturedPieces = Arrays.copyOf(other.undoCapturedPieces, capacity);
+        undoTurns = Arrays.copyOf(other.undoTurns, capacity);
+        undoKeys = Arrays.copyOf(other.undoKeys, capacity);
+        undoHalfmoveClocks = Arrays.copyOf(other.undoHalfmoveClocks, capacity);
+        undoSize = other.undoSize;
+    }
+
     // Getter for the current team's turn
     public TeamColor getTeamTurn() {
         return teamTurn;
@@ -29,6 +90,19 @@ public class ChessGame {
     // Setter for the current team's turn
     public void setTeamTurn(TeamColor team) {
         this.teamTurn = team;
+        invalidateCache();
+    }
+
+    /**
+     * Returns a 64-bit Zobrist key for the current position: piece placement and side to move.
+     * The board part is updated incrementally as pieces move, so this is constant time and
+     * suitable as a cache, deduplication or repetition key.
+     *
+     * @return The position key
+     */
+    public long positionKey() {
+        long key = board.getZobristKey();
+        return (teamTurn == TeamColor.BLACK) ? key ^ Zobrist.BLACK_TO_MOVE : key;
     }
 
     /**
@@ -45,36 +119,48 @@ public class ChessGame {
             return new ArrayList<>();  // Return an empty list instead of null
         }
 
-        Collection<ChessMove> potentialMoves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new ArrayList<>();
-
-        // Verify each potential move to ensure it doesn't leave the king in check
-        for (ChessMove move : potentialMoves) {
-            if (isMoveSafe(move, piece)) {
-                validMoves.add(move);
+        // The generator already filters out moves that would leave the king in check
+        MoveList moves = cachedLegalMoves(piece.getTeamColor());
+        int start = Bitboards.square(startPosition);
+        Collection<ChessMove> result = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.from(moves.get(i)) == start) {
+                result.add(Move.toChessMove(moves.get(i)));
             }
         }
-
-        return validMoves;
+        return result;
     }
 
     /**
-     * Checks if a move would leave the king in check on a temporary board.
+     * Writes the packed legal moves of the given team into a buffer, replacing its contents.
      *
-     * @param move The move to simulate
-     * @param piece The piece to move
-     * @return true if the move is safe, false if it leaves the king in check
+     * @param teamColor The team to generate moves for
+     * @param moves     The buffer to fill
      */
-    private boolean isMoveSafe(ChessMove move, ChessPiece piece) {
-        ChessBoard tempBoard = new ChessBoard();
-        copyBoardState(board, tempBoard);
+    public void legalMoves(TeamColor teamColor, MoveList moves) {
+        generateMoves(teamColor, -1L, moves);
+    }
 
-        // Simulate the move on a temporary board
-        tempBoard.addPiece(move.getEndPosition(), piece);
-        tempBoard.addPiece(move.getStartPosition(), null);
+    private void generateMoves(TeamColor teamColor, long fromMask, MoveList moves) {
+        moves.clear();
+        moveGenerator.init(board, teamColor);
+        moveGenerator.generate(fromMask, moves);
+    }
 
-        // Check if the king would be in check after this move
-        return !isInCheck(piece.getTeamColor(), tempBoard);
+    /**
+     * Checks whether a move is legal for the team to move, testing only that move: the piece's
+     * movement and any blocking pieces, pins and checks, and that a promotion piece is given
+     * exactly when a pawn reaches the last rank.
+     *
+     * @param move The move to test
+     * @return true if the move may be made; false for a move to or from a square off the board
+     */
+    public boolean isLegal(ChessMove move) {
+        if (!Bitboards.isOnBoard(move.getStartPosition()) || !Bitboards.isOnBoard(move.getEndPosition())) {
+            return false;
+        }
+        moveGenerator.init(board, teamTurn);
+        return moveGenerator.isLegal(Move.encode(move));
     }
 
     /**
@@ -84,35 +170,66 @@ public class ChessGame {
      * @throws InvalidMoveException if the move is not valid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPosition start = move.getStartPosition();
-        ChessPosition end = move.getEndPosition();
-
-        ChessPiece piece = board.getPiece(start);
+        if (!Bitboards.isOnBoard(move.getStartPosition()) || !Bitboards.isOnBoard(move.getEndPosition())) {
+            throw new InvalidMoveException("Error: Invalid Move");
+        }
+        ChessPiece piece = board.getPiece(move.getStartPosition());
         if (piece == null || piece.getTeamColor() != teamTurn) {
             throw new InvalidMoveException("Error: Invalid Move");
         }
 
         // Validate that the move is legal
-        Collection<ChessMove> validMoves = validMoves(start);
-        boolean isValid = false;
-
-        if (validMoves != null) {
-            for (ChessMove validMove : validMoves) {
-                if (validMove.getEndPosition().equals(end)) {
-                    isValid = true;
-                    break;
-                }
-            }
+        if (!isLegal(move)) {
+            throw new InvalidMoveException("Error: Not Legal");
         }
 
-        if (!isValid) {
-            throw new InvalidMoveException("Error: Not Legal");
+        doMove(move);
+        invalidateCache();
+    }
+
+    /**
+     * Applies a move to the board without checking that it is legal, recording
+     * enough state for {@link #undoMove()} to restore the previous position.
+     *
+     * @param move The move to apply; a piece must stand on its start position
+     */
+    public void doMove(ChessMove move) {
+        doMove(Move.encode(move));
+    }
+
+    /**
+     * Applies a packed move (see {@link Move}) without checking that it is legal.
+     *
+     * @param move The move to apply; a piece must stand on its start square
+     */
+    public void doMove(int move) {
+        int start = Move.from(move);
+        int end = Move.to(move);
+
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null) {
+            throw new IllegalArgumentException("Error: No piece at start position");
         }
 
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        undoMoves[undoSize] = move;
+        undoMovedPieces[undoSize] = piece;
+        undoCapturedPieces[undoSize] = board.getPiece(end);
+        undoTurns[undoSize] = teamTurn;
+        undoKeys[undoSize] = positionKey();
+        undoHalfmoveClocks[undoSize] = halfmoveClock;
+        undoSize++;
+
+        // Captures and pawn moves cannot be reversed, so no earlier position can repeat after them
+        boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN || board.getPiece(end) != null;
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+
         // Handle pawn promotion
-        if (move.getPromotionPiece() != null) {
-            ChessPiece promotionPiece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
-            board.addPiece(end, promotionPiece);
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            board.addPiece(end, ChessPiece.of(piece.getTeamColor(), promotion));
         } else {
             board.addPiece(end, piece);
         }
@@ -124,6 +241,111 @@ public class ChessGame {
         teamTurn = (teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
+    /**
+     * Takes back the most recent move made with {@link #makeMove} or {@link #doMove},
+     * restoring the moved piece, any captured piece and the team turn.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undoMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("Error: No move to undo");
+        }
+        undoSize--;
+        int move = undoMoves[undoSize];
+
+        board.addPiece(Move.from(move), undoMovedPieces[undoSize]);
+        board.addPiece(Move.to(move), undoCapturedPieces[undoSize]);
+        teamTurn = undoTurns[undoSize];
+        halfmoveClock = undoHalfmoveClocks[undoSize];
+
+        // Drop references so taken-back pieces are not retained by the stack
+        undoMovedPieces[undoSize] = null;
+        undoCapturedPieces[undoSize] = null;
+    }
+
+    // Number of moves that can currently be taken back
+    public int getUndoDepth() {
+        return undoSize;
+    }
+
+    /**
+     * Returns the moves that can currently be taken back, oldest first, in packed form
+     * (see {@link Move}); four bytes per move for storing or sending a game's history.
+     *
+     * @return The packed move history
+     */
+    public int[] getMoveHistory() {
+        return Arrays.copyOf(undoMoves, undoSize);
+    }
+
+    private void growUndoStack() {
+        int capacity = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, capacity);
+        undoMovedPieces = Arrays.copyOf(undoMovedPieces, capacity);
+        undoCapturedPieces = Arrays.copyOf(undoCapturedPieces, capacity);
+        undoTurns = Arrays.copyOf(undoTurns, capacity);
+        undoKeys = Arrays.copyOf(undoKeys, capacity);
+        undoHalfmoveClocks = Arrays.copyOf(undoHalfmoveClocks, capacity);
+    }
+
+    /**
+     * Number of halfmoves since the last capture or pawn move.
+     *
+     * @return The halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    // Used when loading a position that records its own clock, e.g. from FEN
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Counts how many times the current position, with the same team to move, has occurred
+     * in this game, including now. Only the positions since the last capture or pawn move are
+     * scanned, since none before it can match.
+     *
+     * @return The number of occurrences, at least 1
+     */
+    public int repetitionCount() {
+        long key = positionKey();
+        int count = 1;
+        int oldest = Math.max(undoSize - halfmoveClock, 0);
+        for (int i = undoSize - 2; i >= oldest; i -= 2) {
+            if (undoKeys[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // True once the current position has occurred three times
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 3;
+    }
+
+    /**
+     * Checks whether fifty moves by each side have passed without a capture or pawn move.
+     * A checkmate delivered on the last of those moves still ends the game as a win.
+     *
+     * @return true if a draw may be claimed under the fifty-move rule
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= FIFTY_MOVE_PLIES && !isInCheckmate(teamTurn);
+    }
+
+    /**
+     * Checks whether the team to move may claim a draw by threefold repetition or the fifty-move rule.
+     *
+     * @return true if a draw may be claimed
+     */
+    public boolean canClaimDraw() {
+        return isFiftyMoveRule() || isThreefoldRepetition();
+    }
+
     /**
      * Checks if the given team is in check.
      *
@@ -131,7 +353,7 @@ public class ChessGame {
      * @return true if the team is in check, false otherwise
      */
     public boolean isInCheck(TeamColor teamColor) {
-        return isInCheck(teamColor, board);
+        return (status(teamColor) & STATUS_CHECK) != 0;
     }
 
     /**
@@ -142,31 +364,14 @@ public class ChessGame {
      * @return true if the team is in check, false otherwise
      */
     public boolean isInCheck(TeamColor teamColor, ChessBoard boardToCheck) {
-        ChessPosition kingPosition = findKingPosition(teamColor, boardToCheck);
-        if (kingPosition == null) {
+        int kingSquare = boardToCheck.kingSquare(teamColor);
+        if (kingSquare < 0) {
             return false; // Should not happen unless the king is missing from the board
         }
 
-        // Iterate through each square to find if any opponent piece can capture the king
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = boardToCheck.getPiece(position);
-
-                // Skip positions without an opponent piece
-                if (piece == null || piece.getTeamColor() == teamColor) {
-                    continue;
-                }
-
-                Collection<ChessMove> opponentMoves = piece.pieceMoves(boardToCheck, position);
-                for (ChessMove move : opponentMoves) {
-                    if (move.getEndPosition().equals(kingPosition)) {
-                        return true; // The king is in check
-                    }
-                }
-            }
-        }
-        return false;
+        // The king is in check if the opponent attacks the square it stands on
+        TeamColor opponent = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return boardToCheck.isSquareAttacked(kingSquare, opponent);
     }
 
     /**
@@ -176,7 +381,7 @@ public class ChessGame {
      * @return true if the team is in checkmate, false otherwise
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInCheck(teamColor) && !hasLegalMoves(teamColor);
+        return (status(teamColor) & (STATUS_CHECK | STATUS_HAS_MOVES)) == STATUS_CHECK;
     }
 
     /**
@@ -186,12 +391,17 @@ public class ChessGame {
      * @return true if the team is in stalemate, false otherwise
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        return !isInCheck(teamColor) && !hasLegalMoves(teamColor);
+        return (status(teamColor) & (STATUS_CHECK | STATUS_HAS_MOVES)) == 0;
     }
 
-    // Setter for the board
+    // Setter for the board; moves made on the previous board can no longer be taken back
     public void setBoard(ChessBoard board) {
         this.board = board;
+        Arrays.fill(undoMovedPieces, 0, undoSize, null);
+        Arrays.fill(undoCapturedPieces, 0, undoSize, null);
+        undoSize = 0;
+        halfmoveClock = 0;
+        invalidateCache();
     }
 
     // Getter for the board
@@ -199,58 +409,108 @@ public class ChessGame {
         return board;
     }
 
-    private boolean hasLegalMoves(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() == teamColor) { // Added braces
-                    Collection<ChessMove> moves = validMoves(position);
-                    if (moves != null && !moves.isEmpty()) { // Added braces
-                        return true; // There is at least one legal move
-                    }
-                }
-            }
+    /**
+     * Counts the leaf nodes of the legal move tree to the given depth from the current position.
+     * Used to check move generation against known counts and to measure its speed.
+     *
+     * @param depth Number of plies to search
+     * @return Number of positions reachable in exactly that many moves
+     */
+    public long perft(int depth) {
+        if (depth <= 0) {
+            return 1;
         }
-        return false;
+        MoveList[] buffers = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            buffers[i] = new MoveList();
+        }
+        return perft(depth, buffers);
+    }
+
+    private long perft(int depth, MoveList[] buffers) {
+        MoveList moves = buffers[depth - 1];
+        legalMoves(teamTurn, moves);
+        if (depth == 1) {
+            return moves.size(); // Legal moves are leaves; no need to make them
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            doMove(moves.get(i));
+            nodes += perft(depth - 1, buffers);
+            undoMove();
+        }
+        return nodes;
     }
 
     /**
-     * Copies the state of one board to another.
+     * Runs {@link #perft} below each legal move of the side to move.
      *
-     * @param sourceBoard The board to copy from
-     * @param targetBoard The board to copy to
+     * @param depth Number of plies to search, including the root move
+     * @return Leaf count for each root move, in generation order
      */
-    private void copyBoardState(ChessBoard sourceBoard, ChessBoard targetBoard) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = sourceBoard.getPiece(position);
-                if (piece != null) {
-                    targetBoard.addPiece(position, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                }
-            }
+    public Map<ChessMove, Long> divide(int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return counts;
+        }
+        MoveList rootMoves = new MoveList();
+        legalMoves(teamTurn, rootMoves);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            doMove(rootMoves.get(i));
+            counts.put(Move.toChessMove(rootMoves.get(i)), perft(depth - 1));
+            undoMove();
         }
+        return counts;
     }
 
     /**
-     * Finds the position of the king for a given team.
-     *
-     * @param teamColor The team to find the king for
-     * @param board The board to search
-     * @return The position of the king or null if not found
+     * Returns the team's check and has-moves flags for the current position, computing them
+     * on the first query. Later queries for the same position are a field read.
      */
-    private ChessPosition findKingPosition(TeamColor teamColor, ChessBoard board) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                    return position;
-                }
+    private int status(TeamColor teamColor) {
+        validateCache();
+        int index = teamColor.ordinal();
+        if (cachedStatus[index] == 0) {
+            int status = STATUS_KNOWN;
+            if (movesCached[index]) {
+                status |= cachedMoves[index].isEmpty() ? 0 : STATUS_HAS_MOVES;
+                status |= isInCheck(teamColor, board) ? STATUS_CHECK : 0;
+            } else {
+                moveGenerator.init(board, teamColor);
+                status |= moveGenerator.isInCheck() ? STATUS_CHECK : 0;
+                status |= moveGenerator.hasLegalMove() ? STATUS_HAS_MOVES : 0;
             }
+            cachedStatus[index] = status;
         }
-        return null;
+        return cachedStatus[index];
+    }
+
+    // All legal moves of the team in the current position, generated on the first request
+    private MoveList cachedLegalMoves(TeamColor teamColor) {
+        validateCache();
+        int index = teamColor.ordinal();
+        if (!movesCached[index]) {
+            generateMoves(teamColor, -1L, cachedMoves[index]);
+            movesCached[index] = true;
+        }
+        return cachedMoves[index];
+    }
+
+    // Also catches edits made directly on the board returned by getBoard, which change its key
+    private void validateCache() {
+        if (cachedBoard != board || cachedKey != board.getZobristKey()) {
+            invalidateCache();
+            cachedBoard = board;
+            cachedKey = board.getZobristKey();
+        }
+    }
+
+    private void invalidateCache() {
+        cachedBoard = null;
+        cachedStatus[0] = 0;
+        cachedStatus[1] = 0;
+        movesCached[0] = false;
+        movesCached[1] = false;
     }
 
     // Enumeration to represent team colors
@@ -272,7 +532,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, teamTurn);
+        return Long.hashCode(positionKey());
     }
 
     @Override
@@ -1,5 +1,12 @@
 package chess;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Objects;
@@ -12,8 +19,22 @@ import java.util.Objects;
  */
 
 /* Quality Enhancement */
+@JsonAdapter(ChessPiece.GsonAdapter.class)
 public class ChessPiece {
 
+    private static final int PIECE_TYPES = PieceType.values().length;
+
+    // Canonical instance of every color and type, indexed by color * 6 + type
+    private static final ChessPiece[] PIECES = new ChessPiece[2 * PIECE_TYPES];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * PIECE_TYPES + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
@@ -23,6 +44,16 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Returns the shared instance for a color and type. Pieces are immutable, so the
+     * twelve kinds can be shared by every board instead of being allocated per square.
+     *
+     * @return A piece equal to {@code new ChessPiece(pieceColor, type)}
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal() * PIECE_TYPES + type.ordinal()];
+    }
+
     /**
      * The different types of chess pieces.
      */
@@ -60,176 +91,52 @@ public class ChessPiece {
             return moves; // No Piece present
         }
 
-        switch (piece.getPieceType()) {
-            case PAWN:
-                addPawnMoves(board, myPosition, moves);
-                break;
-            case ROOK:
-                addRookMoves(board, myPosition, moves);
-                break;
-            case BISHOP:
-                addBishopMoves(board, myPosition, moves);
-                break;
-            case KNIGHT:
-                addKnightMoves(board, myPosition, moves);
-                break;
-            case QUEEN:
-                addQueenMoves(board, myPosition, moves);
-                break;
-            case KING:
-                addKingMoves(board, myPosition, moves);
-                break;
-            default:
-                throw new IllegalStateException("Error: Unexpected piece type: " + piece);
-        }
+        piece.pieceMoves(board, Bitboards.square(myPosition), move -> moves.add(Move.toChessMove(move)));
         return moves;
     }
 
-    // Adds valid moves for a pawn from a given position
-    private void addPawnMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-        int direction = (this.pieceColor == ChessGame.TeamColor.WHITE) ? 1 : -1;
-
-        // Forward move
-        ChessPosition forwardPosition = new ChessPosition(row + direction, col);
-        if (isPositionValid(forwardPosition) && board.getPiece(forwardPosition) == null) {
-            addMoveOrPromotion(myPosition, forwardPosition, moves);
-        }
-
-        // Initial two-square move
-        if (isPawnInitialPosition(row)) {
-            ChessPosition twoStepsForward = new ChessPosition(row + 2 * direction, col);
-            if (board.getPiece(forwardPosition) == null && board.getPiece(twoStepsForward) == null) {
-                moves.add(new ChessMove(myPosition, twoStepsForward, null));
-            }
-        }
-
-        // Capture left
-        if (col > 1) {
-            ChessPosition captureLeft = new ChessPosition(row + direction, col - 1);
-            if (isPositionValid(captureLeft) && board.getPiece(captureLeft) != null &&
-                    board.getPiece(captureLeft).getTeamColor() != this.pieceColor) {
-                addMoveOrPromotion(myPosition, captureLeft, moves);
-            }
-        }
-
-        // Capture right
-        if (col < 8) {
-            ChessPosition captureRight = new ChessPosition(row + direction, col + 1);
-            if (isPositionValid(captureRight) && board.getPiece(captureRight) != null &&
-                    board.getPiece(captureRight).getTeamColor() != this.pieceColor) {
-                addMoveOrPromotion(myPosition, captureRight, moves);
-            }
-        }
-    }
-
-    // Helper method for adding a move or promotion for pawns
-    private void addMoveOrPromotion(ChessPosition start, ChessPosition end, Collection<ChessMove> moves) {
-        if (isPromotion(end.getRow())) {
-            addPromotionMoves(start, end, moves);
-        } else {
-            moves.add(new ChessMove(start, end, null)); // Normal move
-        }
-    }
-
-    // Checks if a pawn is eligible for promotion (reaching the last rank)
-    private boolean isPromotion(int row) {
-        return (this.pieceColor == ChessGame.TeamColor.WHITE && row == 8) ||
-                (this.pieceColor == ChessGame.TeamColor.BLACK && row == 1);
-    }
-
-    // Adds all possible promotion options for a pawn
-    private void addPromotionMoves(ChessPosition start, ChessPosition end, Collection<ChessMove> moves) {
-        moves.add(new ChessMove(start, end, PieceType.QUEEN));
-        moves.add(new ChessMove(start, end, PieceType.ROOK));
-        moves.add(new ChessMove(start, end, PieceType.BISHOP));
-        moves.add(new ChessMove(start, end, PieceType.KNIGHT));
-    }
-
-    // Checks if the pawn is in its initial position (eligible to move two steps forward)
-    private boolean isPawnInitialPosition(int row) {
-        return (this.pieceColor == ChessGame.TeamColor.WHITE && row == 2) ||
-                (this.pieceColor == ChessGame.TeamColor.BLACK && row == 7);
-    }
-
-    // Adds valid moves for a rook
-    private void addRookMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] rookDirections = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
-        for (int[] dir : rookDirections) {
-            addLineMoves(board, myPosition, moves, dir[0], dir[1]);
-        }
-    }
-
-    // Adds valid moves for a bishop
-    private void addBishopMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] bishopDirections = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
-        for (int[] dir : bishopDirections) {
-            addLineMoves(board, myPosition, moves, dir[0], dir[1]);
-        }
-    }
-
-    // Adds valid moves for a queen (combines straight-line and diagonal moves)
-    private void addQueenMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] queenDirections = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
-        for (int[] dir : queenDirections) {
-            addLineMoves(board, myPosition, moves, dir[0], dir[1]);
-        }
-    }
-
-    // Adds valid moves for a knight
-    private void addKnightMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] knightMoves = {
-                {2, 1}, {2, -1}, {-2, 1}, {-2, -1},
-                {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
-        };
-        for (int[] move : knightMoves) {
-            ChessPosition newPos = new ChessPosition(myPosition.getRow() + move[0], myPosition.getColumn() + move[1]);
-            addMoveIfValid(board, myPosition, newPos, moves);
-        }
-    }
-
-    // Adds valid moves for a king
-    private void addKingMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] kingMoves = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1},
-                {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        };
-        for (int[] move : kingMoves) {
-            ChessPosition newPos = new ChessPosition(myPosition.getRow() + move[0], myPosition.getColumn() + move[1]);
-            addMoveIfValid(board, myPosition, newPos, moves);
-        }
+    /**
+     * Emits the packed moves of this piece standing on the given square, without
+     * taking into account moves that leave the king in danger.
+     *
+     * @param board  The current state of the chessboard.
+     * @param square The square index (0-63) of the piece.
+     * @param sink   Receives each move.
+     */
+    public void pieceMoves(ChessBoard board, int square, MoveSink sink) {
+        long enemies = board.occupancy() & ~board.pieces(pieceColor);
+        MoveGenerator.emitMoves(square, targetSquares(board, square), type == PieceType.PAWN, enemies, sink);
     }
 
-    // Adds valid straight-line moves for rook, bishop, or queen
-    private void addLineMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves, int rowStep, int colStep) {
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-        while (true) {
-            row += rowStep;
-            col += colStep;
-            ChessPosition newPos = new ChessPosition(row, col);
-            if (!isPositionValid(newPos)) {
-                break;
-            }
-            addMoveIfValid(board, myPosition, newPos, moves);
-            if (board.getPiece(newPos) != null) {
-                break; // Block further movement
-            }
-        }
-    }
+    /**
+     * Computes the bitboard of squares this piece could move to from the given square,
+     * excluding squares held by its own team.
+     */
+    long targetSquares(ChessBoard board, int square) {
+        long from = Bitboards.bit(square);
+        long occupied = board.occupancy();
+        long own = board.pieces(pieceColor);
 
-    private void addMoveIfValid(ChessBoard board, ChessPosition start, ChessPosition end, Collection<ChessMove> moves) {
-        if (isPositionValid(end) && (board.getPiece(end) == null || board.getPiece(end).getTeamColor() != this.pieceColor)) {
-            moves.add(new ChessMove(start, end, null));
+        switch (type) {
+            case PAWN:
+                long enemies = occupied & ~own;
+                return Bitboards.pawnPushes(from, pieceColor, ~occupied)
+                        | (Attacks.pawnAttacks(square, pieceColor) & enemies);
+            case ROOK:
+                return Attacks.rookAttacks(square, occupied) & ~own;
+            case BISHOP:
+                return Attacks.bishopAttacks(square, occupied) & ~own;
+            case QUEEN:
+                return Attacks.queenAttacks(square, occupied) & ~own;
+            case KNIGHT:
+                return Attacks.knightAttacks(square) & ~own;
+            case KING:
+                return Attacks.kingAttacks(square) & ~own;
+            default:
+                throw new IllegalStateException("Error: Unexpected piece type: " + type);
         }
     }
 
-    // Checks if the position is valid within the chessboard boundaries
-    private boolean isPositionValid(ChessPosition pos) {
-        return pos.getRow() >= 1 && pos.getRow() <= 8 && pos.getColumn() >= 1 && pos.getColumn() <= 8;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -254,4 +161,45 @@ public class ChessPiece {
                 ", type=" + type +
                 "}\n";
     }
+
+    // Reads and writes the same JSON as reflective Gson, but returns shared instances when reading
+    static class GsonAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            if (piece == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("pieceColor").value(piece.pieceColor.name());
+            out.name("type").value(piece.type.name());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ChessGame.TeamColor color = null;
+            PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("pieceColor".equals(name)) {
+                    color = ChessGame.TeamColor.valueOf(in.nextString());
+                } else if ("type".equals(name)) {
+                    type = PieceType.valueOf(in.nextString());
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (color == null || type == null) {
+                throw new IOException("Error: ChessPiece requires pieceColor and type");
+            }
+            return of(color, type);
+        }
+    }
 }
@@ -1,12 +1,30 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 /**
  * Represents a specific position on the chess board.
+ * <p>
+ * Positions are immutable, so the 64 on-board squares are shared through {@link #of(int, int)}.
  */
+@JsonAdapter(ChessPosition.GsonAdapter.class)
 public class ChessPosition {
 
+    // Canonical instance of every on-board square, indexed by (row - 1) * 8 + (column - 1)
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < SQUARES.length; square++) {
+            SQUARES[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
     // Fields representing the row and column of the chess position
     private final int row;
     private final int column;
@@ -22,6 +40,25 @@ public class ChessPosition {
         this.column = column;
     }
 
+    /**
+     * Returns the shared instance for an on-board square, or a new position for anything off the board.
+     *
+     * @param row The row of the position (1-8 for a standard chess board)
+     * @param column The column of the position (1-8 for a standard chess board)
+     * @return A position equal to {@code new ChessPosition(row, column)}
+     */
+    public static ChessPosition of(int row, int column) {
+        if (row < 1 || row > 8 || column < 1 || column > 8) {
+            return new ChessPosition(row, column);
+        }
+        return SQUARES[((row - 1) << 3) | (column - 1)];
+    }
+
+    // Shared instance for a 0-63 square index
+    static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
+
     // Getter for the row value
     public int getRow() {
         return row;
@@ -58,7 +95,44 @@ public class ChessPosition {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return 31 * (31 + row) + column; // Same value as Objects.hash(row, column) without the varargs array
     }
-}
 
+    // Reads and writes the same JSON as reflective Gson, but returns shared instances when reading
+    static class GsonAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            if (position == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("row").value(position.row);
+            out.name("column").value(position.column);
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int row = 0;
+            int column = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("row".equals(name)) {
+                    row = in.nextInt();
+                } else if ("column".equals(name)) {
+                    column = in.nextInt();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return of(row, column);
+        }
+    }
+}
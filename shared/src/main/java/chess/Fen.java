@@ -0,0 +1,142 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * Piece placement, side to move and the halfmove clock are used. Castling and en passant
+ * fields are accepted but ignored because the game does not implement those rules.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Creates a game in the position described by a FEN string.
+     *
+     * @param fen The FEN string; the side to move defaults to white and the halfmove clock to 0 when missing
+     * @return A new game in that position
+     * @throws IllegalArgumentException if the placement field is malformed
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Error: FEN placement must have 8 ranks: " + fen);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int column = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    column += c - '0';
+                } else {
+                    if (column > 8) {
+                        throw new IllegalArgumentException("Error: FEN rank too long: " + ranks[i]);
+                    }
+                    board.addPiece(ChessPosition.of(row, column), pieceFor(c));
+                    column++;
+                }
+            }
+            if (column != 9) {
+                throw new IllegalArgumentException("Error: FEN rank must cover 8 squares: " + ranks[i]);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((fields.length > 1 && fields[1].equals("b")) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        if (fields.length > 4) {
+            try {
+                game.setHalfmoveClock(Integer.parseInt(fields[4]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Error: FEN halfmove clock must be a number: " + fields[4]);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Describes a game's position as a FEN string.
+     *
+     * @param game The game to describe
+     * @return The FEN string, with no castling or en passant rights and a fullmove number of 1
+     */
+    public static String format(ChessGame game) {
+        StringBuilder fen = new StringBuilder(80);
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int column = 1; column <= 8; column++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, column));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(symbolFor(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b")
+                .append(" - - ").append(game.getHalfmoveClock()).append(" 1");
+        return fen.toString();
+    }
+
+    private static ChessPiece pieceFor(char symbol) {
+        ChessGame.TeamColor color = Character.isUpperCase(symbol) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        switch (Character.toLowerCase(symbol)) {
+            case 'p':
+                return ChessPiece.of(color, ChessPiece.PieceType.PAWN);
+            case 'n':
+                return ChessPiece.of(color, ChessPiece.PieceType.KNIGHT);
+            case 'b':
+                return ChessPiece.of(color, ChessPiece.PieceType.BISHOP);
+            case 'r':
+                return ChessPiece.of(color, ChessPiece.PieceType.ROOK);
+            case 'q':
+                return ChessPiece.of(color, ChessPiece.PieceType.QUEEN);
+            case 'k':
+                return ChessPiece.of(color, ChessPiece.PieceType.KING);
+            default:
+                throw new IllegalArgumentException("Error: Unknown FEN piece: " + symbol);
+        }
+    }
+
+    private static char symbolFor(ChessPiece piece) {
+        char symbol;
+        switch (piece.getPieceType()) {
+            case PAWN:
+                symbol = 'p';
+                break;
+            case KNIGHT:
+                symbol = 'n';
+                break;
+            case BISHOP:
+                symbol = 'b';
+                break;
+            case ROOK:
+                symbol = 'r';
+                break;
+            case QUEEN:
+                symbol = 'q';
+                break;
+            default:
+                symbol = 'k';
+                break;
+        }
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(symbol) : symbol;
+    }
+}
@@ -0,0 +1,90 @@
+package chess;
+
+/**
+ * Packs a move into a single {@code int} so move generation, undo history and stored
+ * games can handle moves without allocating a {@link ChessMove} per move.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (0-63, row 1 column 1 first),
+ * bits 12-14 the promotion piece as {@code PieceType.ordinal() + 1} (0 for none), and the
+ * bits above that are flags. Flags describe the move on the board it was generated for and
+ * are ignored when comparing moves with {@link #sameMove}. The value 0 is never a move.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_CAPTURE = 1 << 15;
+    public static final int FLAG_DOUBLE_PUSH = 1 << 16;
+
+    // From, to and promotion; everything that identifies the move itself
+    private static final int MOVE_MASK = (1 << 15) - 1;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = (promotion == null) ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << 12) | flags;
+    }
+
+    /**
+     * Encodes a {@link ChessMove} without flags.
+     *
+     * @param move The move to encode
+     * @return The packed move
+     */
+    public static int encode(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> 12) & 7) != 0;
+    }
+
+    // The promotion piece type, or null if the move is not a promotion
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> 12) & 7;
+        return (promotionBits == 0) ? null : PIECE_TYPES[promotionBits - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & FLAG_CAPTURE) != 0;
+    }
+
+    // True if both values describe the same start, end and promotion, whatever their flags
+    public static boolean sameMove(int a, int b) {
+        return ((a ^ b) & MOVE_MASK) == 0;
+    }
+
+    /**
+     * Converts a packed move back into a {@link ChessMove} for the public API.
+     *
+     * @param move The packed move
+     * @return An equivalent ChessMove built from shared positions
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+
+    public static String toString(int move) {
+        StringBuilder text = new StringBuilder(5)
+                .append((char) ('a' + (from(move) & 7))).append((char) ('1' + (from(move) >>> 3)))
+                .append((char) ('a' + (to(move) & 7))).append((char) ('1' + (to(move) >>> 3)));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(promotion == ChessPiece.PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0)));
+        }
+        return text.toString();
+    }
+}
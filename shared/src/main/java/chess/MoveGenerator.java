@@ -0,0 +1,246 @@
+package chess;
+
+/**
+ * Generates strictly legal moves for one team.
+ * <p>
+ * {@link #init} analyses the position once: which enemy pieces give check, which of the
+ * team's pieces are pinned to their king, and which squares a non-king move must land on
+ * to answer a check. Generation then masks each piece's targets with that information, so
+ * no move ever has to be made on the board to find out whether it leaves the king in check.
+ * A generator is reusable; call {@link #init} again whenever the board changes.
+ * <p>
+ * Moves can also be generated in two stages, captures and promotions first and quiet
+ * moves second, so a search that gets a cutoff from a capture never generates the rest.
+ */
+public final class MoveGenerator {
+
+    private static final long PROMOTION_RANKS = Bitboards.RANK_1 | Bitboards.RANK_8;
+
+    private ChessBoard board;
+    private ChessGame.TeamColor color;
+    private ChessGame.TeamColor opponent;
+    private int kingSquare;
+    private long checkers;
+    private long pinned;
+    private long evasionMask;
+
+    /**
+     * Computes checkers, pinned pieces and the evasion mask for the given team.
+     *
+     * @param board The board to generate moves on
+     * @param color The team to move
+     */
+    public void init(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        this.opponent = (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        this.kingSquare = board.kingSquare(color);
+        this.checkers = 0;
+        this.pinned = 0;
+        this.evasionMask = -1L;
+
+        // Without a king there is nothing to protect, so every pseudo-legal move is legal
+        if (kingSquare < 0) {
+            return;
+        }
+
+        long occupied = board.occupancy();
+        checkers = board.attackersTo(kingSquare, opponent, occupied);
+        if (checkers != 0) {
+            // Double check can only be answered by the king; a single check can also be captured or blocked
+            evasionMask = (Long.bitCount(checkers) > 1)
+                    ? 0 : checkers | Bitboards.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+        }
+
+        // Enemy sliders that would see the king if the team's own pieces were transparent
+        long enemies = board.pieces(opponent);
+        long queens = board.pieces(opponent, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rookAttacks(kingSquare, enemies)
+                & (board.pieces(opponent, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishopAttacks(kingSquare, enemies)
+                & (board.pieces(opponent, ChessPiece.PieceType.BISHOP) | queens));
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Bitboards.between(kingSquare, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers;
+            }
+        }
+    }
+
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Checks whether the team has at least one legal move, stopping at the first piece that has one.
+     * The king is tried first since it is the only piece that can answer a double check; otherwise
+     * each piece costs one masked target lookup, so no moves are encoded or collected.
+     *
+     * @return true if any legal move exists
+     */
+    public boolean hasLegalMove() {
+        long pieces = board.pieces(color);
+        if (kingSquare >= 0) {
+            if (legalTargets(kingSquare) != 0) {
+                return true;
+            }
+            if (evasionMask == 0) {
+                return false;
+            }
+            pieces &= ~Bitboards.bit(kingSquare);
+        }
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            if (legalTargets(square) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests a single move without generating any others: the piece must belong to the team and
+     * reach the target under its movement rules, the promotion piece must be given exactly when
+     * a pawn reaches the last rank, and the move must not leave the king in check.
+     *
+     * @param move The move in packed form (see {@link Move})
+     * @return true if the move is legal
+     */
+    public boolean isLegal(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = board.getPiece(from);
+        if (piece == null || piece.getTeamColor() != color) {
+            return false;
+        }
+
+        // Movement geometry and obstruction
+        long target = Bitboards.bit(to);
+        if ((piece.targetSquares(board, from) & target) == 0) {
+            return false;
+        }
+
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        boolean promotes = piece.getPieceType() == ChessPiece.PieceType.PAWN
+                && (target & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0;
+        if (promotes) {
+            if (promotion == null || promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+                return false;
+            }
+        } else if (promotion != null) {
+            return false;
+        }
+
+        if (from == kingSquare) {
+            return !board.isSquareAttacked(to, opponent, board.occupancy() & ~Bitboards.bit(from));
+        }
+        if ((target & evasionMask) == 0) {
+            return false;
+        }
+        return (pinned & Bitboards.bit(from)) == 0 || (Bitboards.line(kingSquare, from) & target) != 0;
+    }
+
+    /**
+     * Adds every legal move of the team's pieces standing on the given squares.
+     *
+     * @param fromMask Bitboard of the start squares to generate for
+     * @param sink     Receives each move in packed form
+     */
+    public void generate(long fromMask, MoveSink sink) {
+        long pieces = board.pieces(color) & fromMask;
+        long enemies = board.pieces(opponent);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long targets = legalTargets(square);
+            if (targets != 0) {
+                emitMoves(square, targets, board.getPiece(square).getPieceType() == ChessPiece.PieceType.PAWN,
+                        enemies, sink);
+            }
+        }
+    }
+
+    /**
+     * Adds every legal capture and pawn promotion, including promotions that capture nothing.
+     *
+     * @param sink Receives each move in packed form
+     */
+    public void generateCaptures(MoveSink sink) {
+        generateStage(true, sink);
+    }
+
+    /**
+     * Adds every legal move that {@link #generateCaptures} does not.
+     *
+     * @param sink Receives each move in packed form
+     */
+    public void generateQuiets(MoveSink sink) {
+        generateStage(false, sink);
+    }
+
+    private void generateStage(boolean captures, MoveSink sink) {
+        long pieces = board.pieces(color);
+        long enemies = board.pieces(opponent);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean pawn = board.getPiece(square).getPieceType() == ChessPiece.PieceType.PAWN;
+            long stageMask = pawn ? enemies | PROMOTION_RANKS : enemies;
+            long targets = legalTargets(square) & (captures ? stageMask : ~stageMask);
+            if (targets != 0) {
+                emitMoves(square, targets, pawn, enemies, sink);
+            }
+        }
+    }
+
+    // Bitboard of the squares the piece on the given square may legally move to
+    private long legalTargets(int square) {
+        ChessPiece piece = board.getPiece(square);
+        long targets = piece.targetSquares(board, square);
+
+        if (square == kingSquare) {
+            // Lift the king off the board so it cannot hide behind itself along a checking ray
+            long occupied = board.occupancy() & ~Bitboards.bit(square);
+            long safe = 0;
+            while (targets != 0) {
+                int target = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (!board.isSquareAttacked(target, opponent, occupied)) {
+                    safe |= Bitboards.bit(target);
+                }
+            }
+            return safe;
+        }
+
+        targets &= evasionMask;
+        if ((pinned & Bitboards.bit(square)) != 0) {
+            targets &= Bitboards.line(kingSquare, square);
+        }
+        return targets;
+    }
+
+    /**
+     * Emits a packed move for every target square, expanding pawn moves onto the
+     * last rank into the four promotions and flagging captures and double pushes.
+     */
+    static void emitMoves(int from, long targets, boolean pawn, long enemies, MoveSink sink) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = ((enemies & Bitboards.bit(to)) != 0) ? Move.FLAG_CAPTURE : 0;
+            if (!pawn) {
+                sink.accept(Move.encode(from, to, null, flags));
+            } else if ((Bitboards.bit(to) & PROMOTION_RANKS) != 0) {
+                sink.accept(Move.encode(from, to, ChessPiece.PieceType.QUEEN, flags));
+                sink.accept(Move.encode(from, to, ChessPiece.PieceType.ROOK, flags));
+                sink.accept(Move.encode(from, to, ChessPiece.PieceType.BISHOP, flags));
+                sink.accept(Move.encode(from, to, ChessPiece.PieceType.KNIGHT, flags));
+            } else {
+                sink.accept(Move.encode(from, to, null, (Math.abs(to - from) == 16) ? flags | Move.FLAG_DOUBLE_PUSH : flags));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Reusable buffer of packed moves (see {@link Move}).
+ * <p>
+ * Clearing a list keeps its array, so a list held by a game or a search allocates only
+ * when it has to grow past the most moves it has ever held.
+ */
+public final class MoveList implements MoveSink {
+
+    // More than the number of legal moves in any reachable chess position
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public void accept(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Index of the first move with the same start, end and promotion, or -1
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (Move.sameMove(moves[i], move)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Adds every move in the list to a collection as {@link ChessMove} objects.
+     *
+     * @param target The collection to add to
+     * @return The same collection
+     */
+    public <T extends Collection<ChessMove>> T toChessMoves(T target) {
+        for (int i = 0; i < size; i++) {
+            target.add(Move.toChessMove(moves[i]));
+        }
+        return target;
+    }
+}
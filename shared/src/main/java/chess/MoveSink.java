@@ -0,0 +1,9 @@
+package chess;
+
+/**
+ * Receives packed moves (see {@link Move}) from a move generator.
+ */
+public interface MoveSink {
+
+    void accept(int move);
+}
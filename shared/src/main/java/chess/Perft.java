@@ -0,0 +1,237 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel perft driver and command-line entry point for measuring and validating move generation.
+ * <p>
+ * The legal moves at the root are split across a {@link ForkJoinPool}, each task searching its
+ * subtree on its own copy of the game. Subtree counts can optionally be memoized in a shared
+ * table keyed by position key and remaining depth; entries are written without locks and
+ * verified on read, so a torn entry from a concurrent write is simply treated as a miss.
+ * <p>
+ * Usage: {@code java chess.Perft <depth> [--fen "<fen>"] [--threads N] [--hash MB] [--divide]}
+ */
+public final class Perft {
+
+    private final int threads;
+    private final PerftCache cache;
+
+    /**
+     * @param threads   Worker threads for the root split
+     * @param hashBytes Size of the subtree cache in bytes, or 0 to disable it
+     */
+    public Perft(int threads, long hashBytes) {
+        this.threads = Math.max(1, threads);
+        this.cache = (hashBytes > 0) ? new PerftCache(hashBytes) : null;
+    }
+
+    /**
+     * Counts leaf nodes to the given depth, splitting the root moves across worker threads.
+     *
+     * @param game  The position to search; it is not modified
+     * @param depth Number of plies
+     * @return Results per root move, in generation order
+     */
+    public List<Result> divide(ChessGame game, int depth) {
+        List<Result> results = new ArrayList<>();
+        if (depth <= 0) {
+            return results;
+        }
+
+        MoveList rootMoves = new MoveList();
+        game.legalMoves(game.getTeamTurn(), rootMoves);
+        List<SubtreeTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            tasks.add(new SubtreeTask(game, rootMoves.get(i), depth - 1));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> RecursiveTask.invokeAll(tasks)).join();
+        } finally {
+            pool.shutdown();
+        }
+        for (SubtreeTask task : tasks) {
+            results.add(new Result(task.move, task.join()));
+        }
+        return results;
+    }
+
+    public long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (Result result : divide(game, depth)) {
+            nodes += result.getNodes();
+        }
+        return nodes;
+    }
+
+    private long count(ChessGame game, int depth, MoveList[] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        long key = 0;
+        if (cache != null && depth > 1) {
+            key = game.positionKey();
+            long cached = cache.get(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = buffers[depth - 1];
+        game.legalMoves(game.getTeamTurn(), moves);
+        long nodes;
+        if (depth == 1) {
+            nodes = moves.size();
+        } else {
+            nodes = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                game.doMove(moves.get(i));
+                nodes += count(game, depth - 1, buffers);
+                game.undoMove();
+            }
+            if (cache != null) {
+                cache.put(key, depth, nodes);
+            }
+        }
+        return nodes;
+    }
+
+    // Searches the subtree below one root move on a private copy of the game
+    private final class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChessGame root;
+        private final int move;
+        private final int depth;
+
+        SubtreeTask(ChessGame root, int move, int depth) {
+            this.root = root;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            ChessGame game = new ChessGame(root);
+            game.doMove(move);
+            MoveList[] buffers = new MoveList[Math.max(depth, 1)];
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = new MoveList();
+            }
+            return count(game, depth, buffers);
+        }
+    }
+
+    /**
+     * Leaf count below one root move.
+     */
+    public static final class Result {
+        private final int move;
+        private final long nodes;
+
+        Result(int move, long nodes) {
+            this.move = move;
+            this.nodes = nodes;
+        }
+
+        // Root move in packed form (see Move)
+        public int getMove() {
+            return move;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    // Fixed-size table of subtree counts; each slot stores the count and the key XOR the count
+    private static final class PerftCache {
+        private final long[] checks;
+        private final long[] counts;
+        private final int mask;
+
+        PerftCache(long bytes) {
+            int entries = Integer.highestOneBit((int) Math.min(Math.max(bytes / 16, 1), 1 << 30));
+            checks = new long[entries];
+            counts = new long[entries];
+            mask = entries - 1;
+        }
+
+        long get(long key, int depth) {
+            long slotKey = slotKey(key, depth);
+            int index = (int) slotKey & mask;
+            long count = counts[index];
+            return ((checks[index] ^ count) == slotKey) ? count : -1;
+        }
+
+        void put(long key, int depth, long count) {
+            long slotKey = slotKey(key, depth);
+            int index = (int) slotKey & mask;
+            counts[index] = count;
+            checks[index] = slotKey ^ count;
+        }
+
+        // Folds the depth into the key so counts for different depths do not collide
+        private static long slotKey(long key, int depth) {
+            return key ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java chess.Perft <depth> [--fen \"<fen>\"] [--threads N] [--hash MB] [--divide]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String fen = Fen.START_POSITION;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long hashMegabytes = 0;
+        boolean showDivide = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fen":
+                    fen = args[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--hash":
+                    hashMegabytes = Long.parseLong(args[++i]);
+                    break;
+                case "--divide":
+                    showDivide = true;
+                    break;
+                default:
+                    System.out.println("Error: Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        ChessGame game = Fen.parse(fen);
+        Perft perft = new Perft(threads, hashMegabytes * 1024 * 1024);
+
+        long start = System.nanoTime();
+        List<Result> results = perft.divide(game, depth);
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+
+        long nodes = (depth <= 0) ? 1 : 0;
+        for (Result result : results) {
+            nodes += result.getNodes();
+            if (showDivide) {
+                System.out.println(Move.toString(result.getMove()) + ": " + result.getNodes());
+            }
+        }
+        System.out.println("Depth " + depth + ": " + nodes + " nodes in " + (elapsed / 1_000_000) + " ms ("
+                + (long) (nodes * 1_000_000_000.0 / elapsed) + " nodes/s, " + threads + " threads"
+                + (hashMegabytes > 0 ? ", " + hashMegabytes + " MB hash" : "") + ")");
+    }
+}
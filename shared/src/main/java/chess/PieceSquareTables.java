@@ -0,0 +1,146 @@
+package chess;
+
+/**
+ * Material and piece-square values for evaluation, in centipawns, with separate middlegame
+ * and endgame values for tapering between the two.
+ * <p>
+ * The board adds a piece's values when it is placed and subtracts them when it is removed,
+ * the same way it maintains its Zobrist key, so the totals are always current and a full
+ * evaluation needs no scan of the board. Values are from white's point of view: black
+ * pieces use the vertically mirrored square and count negatively.
+ */
+final class PieceSquareTables {
+
+    private static final int PIECE_TYPES = ChessPiece.PieceType.values().length;
+
+    // Game phase is the sum of these weights over the pieces on the board, capped at MAX_PHASE
+    static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] MIDDLEGAME_MATERIAL = {0, 1025, 365, 337, 477, 82};
+    private static final int[] ENDGAME_MATERIAL = {0, 936, 297, 281, 512, 94};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    // Tables are written as seen from white's side, row 8 first, so they read like a diagram
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] PAWN_MIDDLEGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+    // Passed-pawn races decide endgames, so advancement is worth more than central control
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] MIDDLEGAME = new int[2 * PIECE_TYPES * 64];
+    private static final int[] ENDGAME = new int[2 * PIECE_TYPES * 64];
+
+    static {
+        int[][] middlegameTables = {KING_MIDDLEGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDDLEGAME};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (int type = 0; type < PIECE_TYPES; type++) {
+            for (int square = 0; square < 64; square++) {
+                // Square 0 is a1, which is the first entry of the last diagram row for white
+                int whiteIndex = (7 - (square >>> 3)) * 8 + (square & 7);
+                int blackIndex = square;
+                int white = (type << 6) | square;
+                int black = ((PIECE_TYPES + type) << 6) | square;
+                MIDDLEGAME[white] = MIDDLEGAME_MATERIAL[type] + middlegameTables[type][whiteIndex];
+                ENDGAME[white] = ENDGAME_MATERIAL[type] + endgameTables[type][whiteIndex];
+                MIDDLEGAME[black] = -(MIDDLEGAME_MATERIAL[type] + middlegameTables[type][blackIndex]);
+                ENDGAME[black] = -(ENDGAME_MATERIAL[type] + endgameTables[type][blackIndex]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    static int middlegame(ChessPiece piece, int square) {
+        return MIDDLEGAME[index(piece, square)];
+    }
+
+    static int endgame(ChessPiece piece, int square) {
+        return ENDGAME[index(piece, square)];
+    }
+
+    static int phase(ChessPiece piece) {
+        return PHASE_WEIGHTS[piece.getPieceType().ordinal()];
+    }
+
+    private static int index(ChessPiece piece, int square) {
+        return ((piece.getTeamColor().ordinal() * PIECE_TYPES + piece.getPieceType().ordinal()) << 6) | square;
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ * <p>
+ * A position's key is the XOR of one key per occupied square and piece kind, plus a key
+ * when black is to move, so adding, removing or moving a piece updates it with one or two
+ * XORs. The keys come from a fixed seed, so a position has the same key in every JVM and
+ * stored keys stay valid across restarts. This tree has no castling or en passant, so there
+ * is no state beyond placement and side to move to cover.
+ */
+final class Zobrist {
+
+    private static final int PIECE_TYPES = ChessPiece.PieceType.values().length;
+
+    private static final long[] PIECE_KEYS = new long[2 * PIECE_TYPES * 64];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            PIECE_KEYS[i] = mix(seed);
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    static long pieceKey(ChessPiece piece, int square) {
+        return PIECE_KEYS[((piece.getTeamColor().ordinal() * PIECE_TYPES + piece.getPieceType().ordinal()) << 6) | square];
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
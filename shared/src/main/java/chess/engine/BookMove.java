@@ -0,0 +1,35 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * A move found in an opening book, with the weight the book gives it. A move is played
+ * with probability proportional to its weight among the moves for the same position.
+ */
+public final class BookMove {
+
+    private final ChessMove move;
+    private final int weight;
+
+    BookMove(ChessMove move, int weight) {
+        this.move = move;
+        this.weight = weight;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    // 0 to 65535; a move of weight 0 is in the book but should not be played
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "BookMove{" +
+                "move=" + move +
+                ", weight=" + weight +
+                '}';
+    }
+}
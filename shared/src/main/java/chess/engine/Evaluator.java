@@ -0,0 +1,43 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Static evaluation of a position in centipawns: material and piece-square values, tapered
+ * from middlegame to endgame values as pieces come off the board.
+ * <p>
+ * The board keeps the middlegame and endgame totals and the game phase up to date as pieces
+ * are placed and removed, so an evaluation is a blend of three integers with no board scan.
+ * That makes it cheap enough for every search leaf and for showing an evaluation to observers.
+ */
+public final class Evaluator {
+
+    // Simple piece values for move ordering and exchanges, indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private Evaluator() {
+    }
+
+    /**
+     * Scores the position for the search.
+     *
+     * @param game The position to score
+     * @return The score from the point of view of the team to move
+     */
+    public static int evaluate(ChessGame game) {
+        int score = evaluate(game.getBoard());
+        return (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Scores a board from white's point of view, e.g. for an evaluation bar.
+     *
+     * @param board The board to score
+     * @return Positive when white is better, in centipawns
+     */
+    public static int evaluate(ChessBoard board) {
+        int phase = board.getPhase();
+        return (board.getMiddlegameScore() * phase + board.getEndgameScore() * (ChessBoard.MAX_PHASE - phase)) / ChessBoard.MAX_PHASE;
+    }
+}
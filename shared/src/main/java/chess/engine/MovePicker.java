@@ -0,0 +1,211 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+/**
+ * Hands out the legal moves of one position in the order most likely to cause a cutoff,
+ * generating each stage only when the previous one is used up:
+ * <ol>
+ *     <li>the hash move from the transposition table,</li>
+ *     <li>captures and promotions, most valuable victim first and cheapest attacker breaking ties,</li>
+ *     <li>the two killer moves, quiet moves that caused a cutoff at the same ply elsewhere,</li>
+ *     <li>the remaining quiet moves, ordered by how often they have caused cutoffs (history).</li>
+ * </ol>
+ * Stored hash and killer moves are checked for legality before they are returned, and
+ * are skipped when their stage is generated. For quiescence search a picker can instead
+ * return only the captures and promotions. A picker is reused for every node at one ply.
+ */
+final class MovePicker {
+
+    private static final int STAGE_HASH = 0;
+    private static final int STAGE_GENERATE_CAPTURES = 1;
+    private static final int STAGE_CAPTURES = 2;
+    private static final int STAGE_KILLER_1 = 3;
+    private static final int STAGE_KILLER_2 = 4;
+    private static final int STAGE_GENERATE_QUIETS = 5;
+    private static final int STAGE_QUIETS = 6;
+    private static final int STAGE_DONE = 7;
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final MoveList moves = new MoveList();
+    private int[] scores = new int[256];
+    private int index;
+
+    private ChessBoard board;
+    private int stage;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private int[] history;
+    private boolean capturesOnly;
+
+    /**
+     * Prepares to pick the moves of the team to move.
+     *
+     * @param board    The position
+     * @param color    The team to move
+     * @param hashMove Move to try first, or {@link Move#NONE}
+     * @param killer1  First killer move for this ply, or {@link Move#NONE}
+     * @param killer2  Second killer move for this ply, or {@link Move#NONE}
+     * @param history  Cutoff counts for the team, indexed by {@link #historyIndex}
+     */
+    void init(ChessBoard board, ChessGame.TeamColor color, int hashMove, int killer1, int killer2, int[] history) {
+        this.board = board;
+        this.hashMove = hashMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        this.history = history;
+        this.stage = STAGE_HASH;
+        this.capturesOnly = false;
+        generator.init(board, color);
+    }
+
+    // Prepares to pick only the captures and promotions of the team to move, best first
+    void initCaptures(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.hashMove = Move.NONE;
+        this.killer1 = Move.NONE;
+        this.killer2 = Move.NONE;
+        this.stage = STAGE_GENERATE_CAPTURES;
+        this.capturesOnly = true;
+        generator.init(board, color);
+    }
+
+    boolean isInCheck() {
+        return generator.isInCheck();
+    }
+
+    /**
+     * @return The next move in packed form, or {@link Move#NONE} when every move has been returned
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case STAGE_HASH:
+                    stage = STAGE_GENERATE_CAPTURES;
+                    if (hashMove != Move.NONE && generator.isLegal(hashMove)) {
+                        return hashMove;
+                    }
+                    hashMove = Move.NONE;
+                    break;
+                case STAGE_GENERATE_CAPTURES:
+                    moves.clear();
+                    generator.generateCaptures(moves);
+                    scoreCaptures();
+                    index = 0;
+                    stage = STAGE_CAPTURES;
+                    break;
+                case STAGE_CAPTURES: {
+                    int move = pickBest();
+                    if (move != Move.NONE) {
+                        return move;
+                    }
+                    stage = capturesOnly ? STAGE_DONE : STAGE_KILLER_1;
+                    break;
+                }
+                case STAGE_KILLER_1:
+                    stage = STAGE_KILLER_2;
+                    if (isUsableKiller(killer1)) {
+                        return killer1;
+                    }
+                    killer1 = Move.NONE;
+                    break;
+                case STAGE_KILLER_2:
+                    stage = STAGE_GENERATE_QUIETS;
+                    if (!Move.sameMove(killer2, killer1) && isUsableKiller(killer2)) {
+                        return killer2;
+                    }
+                    killer2 = Move.NONE;
+                    break;
+                case STAGE_GENERATE_QUIETS:
+                    moves.clear();
+                    generator.generateQuiets(moves);
+                    scoreQuiets();
+                    index = 0;
+                    stage = STAGE_QUIETS;
+                    break;
+                case STAGE_QUIETS: {
+                    int move = pickBest();
+                    if (move != Move.NONE) {
+                        return move;
+                    }
+                    stage = STAGE_DONE;
+                    break;
+                }
+                default:
+                    return Move.NONE;
+            }
+        }
+    }
+
+    // Index of a move in a team's history table
+    static int historyIndex(int move) {
+        return (Move.from(move) << 6) | Move.to(move);
+    }
+
+    // Killers are quiet moves; a capture or promotion was already tried in its own stage
+    private boolean isUsableKiller(int killer) {
+        return killer != Move.NONE && !Move.sameMove(killer, hashMove)
+                && board.getPiece(Move.to(killer)) == null && !Move.isPromotion(killer)
+                && generator.isLegal(killer);
+    }
+
+    // Most valuable victim first; among equal victims, the least valuable attacker first
+    private void scoreCaptures() {
+        ensureScoreCapacity();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            ChessPiece victim = board.getPiece(Move.to(move));
+            ChessPiece attacker = board.getPiece(Move.from(move));
+            int score = (victim == null) ? 0 : Evaluator.PIECE_VALUES[victim.getPieceType().ordinal()] * 16;
+            score -= Evaluator.PIECE_VALUES[attacker.getPieceType().ordinal()] / 100;
+            if (Move.isPromotion(move)) {
+                score += Evaluator.PIECE_VALUES[Move.promotion(move).ordinal()] * 16;
+            }
+            scores[i] = score;
+        }
+    }
+
+    private void scoreQuiets() {
+        ensureScoreCapacity();
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = history[historyIndex(moves.get(i))];
+        }
+    }
+
+    // Selection sort one step at a time, so moves after a cutoff are never sorted
+    private int pickBest() {
+        while (index < moves.size()) {
+            int best = index;
+            for (int i = index + 1; i < moves.size(); i++) {
+                if (scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            scores[best] = scores[index];
+            index++;
+
+            // Killers still hold their raw values during the capture stage, so only quiet moves are checked
+            // against them; by the quiet stage a killer that was not returned has been cleared
+            boolean returnedAsKiller = stage == STAGE_QUIETS
+                    && (Move.sameMove(move, killer1) || Move.sameMove(move, killer2));
+            if (!Move.sameMove(move, hashMove) && !returnedAsKiller) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    private void ensureScoreCapacity() {
+        if (scores.length < moves.size()) {
+            scores = new int[moves.size() * 2];
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP search: several threads search the same root position independently and
+ * cooperate only through a shared {@link TranspositionTable}.
+ * <p>
+ * The calling thread runs the main search and its result is the one returned. Each helper
+ * searches its own copy of the game; odd-numbered helpers run one ply ahead of the main
+ * thread so the threads spread over different depths and fill the table with entries the
+ * others can use. Helpers are stopped as soon as the main search finishes.
+ */
+public final class ParallelSearch {
+
+    private final int threads;
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+    private final AtomicBoolean stopRequest = new AtomicBoolean();
+
+    /**
+     * @param threads Total search threads, including the calling thread
+     * @param table   Table shared by every thread
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Error: Search needs at least one thread");
+        }
+        this.threads = threads;
+        this.table = table;
+        this.main = new Search(table);
+        this.helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(table);
+        }
+    }
+
+    // Uses one thread per available processor and a table of the default size
+    public ParallelSearch() {
+        this(Runtime.getRuntime().availableProcessors(), new TranspositionTable(Search.DEFAULT_HASH_MEGABYTES));
+    }
+
+    /**
+     * Searches the game's current position on all threads until the main search reaches a limit.
+     *
+     * @param game   The position to search; the main thread makes and takes back moves on it,
+     *               and it is left in its original position when this returns
+     * @param limits Depth, node and time bounds for the main search
+     * @return The main search's result, with the node count summed over all threads
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, null);
+    }
+
+    /**
+     * Searches on all threads, reporting each iteration the main search completes, once, with
+     * node counts summed over all threads. Helpers never report, and the main search's
+     * periodic reports in between iterations are not passed on.
+     *
+     * @param game     The position to search; it is left in its original position when this returns
+     * @param limits   Depth, node and time bounds for the main search
+     * @param listener Receives progress reports on the calling thread, or null for none
+     * @return The main search's result, with the node count summed over all threads
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, SearchListener listener) {
+        stopRequest.set(false);
+        return search(game, limits, listener, stopRequest);
+    }
+
+    // Searches until a limit is reached or the given flag is set, e.g. by a SearchController
+    SearchResult search(ChessGame game, SearchLimits limits, SearchListener listener, AtomicBoolean stopRequest) {
+        table.newSearch();
+        AtomicBoolean helpersDone = new AtomicBoolean();
+        // Helpers have no depth or node limit of their own; they run until the main search ends
+        SearchLimits helperLimits = SearchLimits.time(limits.getMaxTimeMillis());
+
+        List<Thread> workers = new ArrayList<>(helpers.length);
+        for (Search helper : helpers) {
+            helper.resetNodes();
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            ChessGame copy = new ChessGame(game);
+            int depthSkew = (i % 2 == 0) ? 1 : 0;
+            Thread worker = new Thread(() -> helper.search(copy, helperLimits, depthSkew, helpersDone, null),
+                    "search-helper-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        SearchResult result;
+        try {
+            SearchListener mainListener = (listener == null) ? null : new SearchListener() {
+                private int reportedDepth;
+
+                @Override
+                public void onProgress(SearchInfo info) {
+                    if (info.getDepth() > reportedDepth) {
+                        reportedDepth = info.getDepth();
+                        listener.onProgress(info.withNodes(info.getNodes() + helperNodes()));
+                    }
+                }
+            };
+            result = main.search(game, limits, 0, stopRequest, mainListener);
+        } finally {
+            helpersDone.set(true);
+            for (Thread worker : workers) {
+                joinQuietly(worker);
+            }
+        }
+
+        return result.withNodes(result.getNodes() + helperNodes());
+    }
+
+    // Helpers publish their counts every few thousand nodes, so a report may lag them slightly
+    private long helperNodes() {
+        long nodes = 0;
+        for (Search helper : helpers) {
+            nodes += helper.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Asks the current search to stop; every thread returns shortly afterwards.
+     * Safe to call from any thread.
+     */
+    public void stop() {
+        stopRequest.set(true);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    private static void joinQuietly(Thread worker) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                worker.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
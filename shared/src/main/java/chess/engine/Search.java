@@ -0,0 +1,389 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterative-deepening negamax search with alpha-beta pruning.
+ * <p>
+ * Each iteration searches one ply deeper than the last, trying the previous iteration's
+ * best move first. Moves at each node come from a {@link MovePicker}, which orders them by
+ * hash move, captures, killer moves and history so cutoffs come early. At the horizon a
+ * quiescence search keeps playing captures and promotions until the position is quiet,
+ * skipping captures that lose material by static exchange evaluation. The principal
+ * variation is collected in a triangular table as the search unwinds. Moves are made and
+ * taken back on the game itself through
+ * {@link ChessGame#doMove(int)} and {@link ChessGame#undoMove()}, so the search allocates
+ * nothing per node. Results are kept in a {@link TranspositionTable}, which cuts off
+ * positions already searched deeply enough and supplies the best move to try first.
+ * A searcher is reusable but not thread-safe; the table may be shared.
+ */
+public final class Search {
+
+    public static final int MATE_SCORE = 32000;
+    public static final int MAX_PLY = 128;
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    // Scores further than this from zero are forced mates
+    private static final int MATE_BOUND = MATE_SCORE - MAX_PLY;
+
+    // Nodes between reads of the clock and the stop flag
+    private static final int CHECK_INTERVAL = 1024;
+
+    // Time between progress reports while an iteration is still running
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final MoveList rootMoves = new MoveList();
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    // Two quiet moves per ply that most recently caused a cutoff there
+    private final int[][] killers = new int[MAX_PLY][2];
+    // Per team, how much each quiet move (by start and end square) has contributed to cutoffs
+    private final int[][] history = new int[2][64 * 64];
+    private final int[] exchangeBuffer = new int[StaticExchange.MAX_EXCHANGE];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private final TranspositionTable table;
+    private final AtomicBoolean stopRequest = new AtomicBoolean();
+
+    private ChessGame game;
+    private long nodes;
+    // Copy of the node count for other threads, refreshed every CHECK_INTERVAL nodes and when a search ends
+    private volatile long publishedNodes;
+    private long nodeLimit;
+    private long deadline;
+    private int depthSkew;
+    private AtomicBoolean abort;
+    private boolean stopped;
+
+    private SearchListener listener;
+    private long startTime;
+    private long nextProgress;
+    private int[] bestLine;
+    private int bestScore;
+    private int completedDepth;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_HASH_MEGABYTES));
+    }
+
+    // Creates a searcher that stores results in the given, possibly shared, table
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < MAX_PLY; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * Searches the game's current position until a limit is reached.
+     *
+     * @param game   The position to search; moves are made and taken back on it during the search,
+     *               and it is left in its original position when this returns
+     * @param limits Depth, node and time bounds
+     * @return The best move and principal variation of the deepest completed iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, null);
+    }
+
+    /**
+     * Searches the game's current position until a limit is reached, reporting progress
+     * after each completed iteration and about once a second in between.
+     *
+     * @param game     The position to search; it is left in its original position when this returns
+     * @param limits   Depth, node and time bounds
+     * @param listener Receives progress reports on this thread, or null for none
+     * @return The best move and principal variation of the deepest completed iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, SearchListener listener) {
+        stopRequest.set(false);
+        table.newSearch();
+        return search(game, limits, 0, stopRequest, listener);
+    }
+
+    /**
+     * Asks the current search to stop; it returns the result of its deepest completed iteration.
+     * Safe to call from any thread.
+     */
+    public void stop() {
+        stopRequest.set(true);
+    }
+
+    /**
+     * Searches with every iteration deepened by a fixed number of plies, stopping when the
+     * limits are reached or the abort flag is set. The caller starts the table's search
+     * generation, so threads sharing a table can all search within one generation.
+     */
+    SearchResult search(ChessGame game, SearchLimits limits, int depthSkew, AtomicBoolean abort,
+                        SearchListener listener) {
+        this.game = game;
+        this.depthSkew = depthSkew;
+        this.abort = abort;
+        this.listener = listener;
+        startTime = System.nanoTime();
+        nextProgress = startTime + PROGRESS_INTERVAL_NANOS;
+        nodes = 0;
+        publishedNodes = 0;
+        stopped = false;
+        nodeLimit = (limits.getMaxNodes() > 0) ? limits.getMaxNodes() : Long.MAX_VALUE;
+        deadline = (limits.getMaxTimeMillis() > 0) ? startTime + limits.getMaxTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+        int maxDepth = (limits.getMaxDepth() > 0) ? Math.min(limits.getMaxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+
+        bestLine = new int[0];
+        bestScore = 0;
+        completedDepth = 0;
+
+        ageHeuristics();
+        game.legalMoves(game.getTeamTurn(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            bestScore = game.isInCheck(game.getTeamTurn(), game.getBoard()) ? -MATE_SCORE : 0;
+        } else {
+            // Always have a move to play, even if the first iteration is cut short
+            bestLine = new int[]{rootMoves.get(0)};
+            for (int depth = 1 + depthSkew; depth <= maxDepth; depth++) {
+                int score = negamax(depth, 0, -MATE_SCORE - 1, MATE_SCORE + 1, bestLine[0]);
+                if (stopped) {
+                    break;
+                }
+                bestLine = Arrays.copyOf(pvTable[0], pvLength[0]);
+                bestScore = score;
+                completedDepth = depth;
+                reportProgress();
+
+                // A mate within the full-width depth is the shortest there is; one found beyond it,
+                // in quiescence or through a table entry, may still have a shorter line
+                if (isMateScore(score) && MATE_SCORE - Math.abs(score) <= depth) {
+                    break;
+                }
+            }
+        }
+
+        this.game = null;
+        this.abort = null;
+        this.listener = null;
+        publishedNodes = nodes;
+        return new SearchResult(bestLine, bestScore, completedDepth, nodes, elapsedMillis());
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Nodes visited by the current or most recent search. Safe to call from any thread; while
+     * a search runs on another thread the count may be up to a thousand or so nodes behind.
+     */
+    public long getNodes() {
+        return publishedNodes;
+    }
+
+    // Clears the node count before a search is started on another thread
+    void resetNodes() {
+        publishedNodes = 0;
+    }
+
+    // True if the score is a forced mate for either side
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_BOUND;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, int firstMove) {
+        pvLength[ply] = 0;
+        if (depth == 0) {
+            return quiescence(ply, alpha, beta);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        if (ply > 0 && (game.getHalfmoveClock() >= 100 || game.repetitionCount() > 1)) {
+            return 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(game);
+        }
+
+        // Reuse a stored result when it was searched at least this deep and its bound settles the window
+        long key = game.positionKey();
+        long entry = table.probe(key);
+        if (entry != 0) {
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int stored = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && stored >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && stored <= alpha)) {
+                    return stored;
+                }
+            }
+            if (firstMove == Move.NONE) {
+                firstMove = TranspositionTable.move(entry);
+            }
+        }
+
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        int[] plyKillers = killers[ply];
+        int[] teamHistory = history[turn.ordinal()];
+        MovePicker picker = pickers[ply];
+        picker.init(game.getBoard(), turn, firstMove, plyKillers[0], plyKillers[1], teamHistory);
+
+        int originalAlpha = alpha;
+        int best = -MATE_SCORE - 1;
+        int bestMove = Move.NONE;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            boolean quiet = game.getBoard().getPiece(Move.to(move)) == null && !Move.isPromotion(move);
+            game.doMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, Move.NONE);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            recordCutoff(plyKillers, teamHistory, move, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (bestMove == Move.NONE) {
+            return picker.isInCheck() ? -MATE_SCORE + ply : 0;
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.BOUND_LOWER
+                : (best > originalAlpha) ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, TranspositionTable.scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions only, so the static evaluation is never taken in the
+     * middle of an exchange. The side to move may stand pat on the evaluation instead of
+     * capturing, except when in check, where every evasion is searched so mates are seen.
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = 0;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(game);
+        }
+
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        MovePicker picker = pickers[ply];
+        boolean inCheck = game.isInCheck(turn, game.getBoard());
+        int best;
+        if (inCheck) {
+            picker.init(game.getBoard(), turn, Move.NONE, Move.NONE, Move.NONE, history[turn.ordinal()]);
+            best = -MATE_SCORE + ply;
+        } else {
+            best = Evaluator.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+            picker.initCaptures(game.getBoard(), turn);
+        }
+
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            // A capture that loses material cannot raise the score above standing pat
+            if (!inCheck && !Move.isPromotion(move)
+                    && StaticExchange.evaluate(game.getBoard(), move, exchangeBuffer) < 0) {
+                continue;
+            }
+            game.doMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Counts a node and checks the limits; true if the search must stop
+    private boolean countNode() {
+        if (++nodes >= nodeLimit) {
+            stopped = true;
+        } else if ((nodes % CHECK_INTERVAL) == 0) {
+            publishedNodes = nodes;
+            long now = System.nanoTime();
+            if (abort.get() || now >= deadline) {
+                stopped = true;
+            } else if (listener != null && now >= nextProgress) {
+                reportProgress();
+            }
+        }
+        return stopped;
+    }
+
+    private void reportProgress() {
+        if (listener != null) {
+            nextProgress = System.nanoTime() + PROGRESS_INTERVAL_NANOS;
+            listener.onProgress(new SearchInfo(completedDepth, bestScore, bestLine, nodes, elapsedMillis(),
+                    table.getHashfull()));
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    // The principal variation at this ply is the move followed by the child's variation
+    private void updatePv(int ply, int move) {
+        int[] line = pvTable[ply];
+        line[0] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], 0, line, 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+
+    // Keeps the move as the first killer at this ply and credits it in the history table
+    private static void recordCutoff(int[] plyKillers, int[] teamHistory, int move, int depth) {
+        if (!Move.sameMove(plyKillers[0], move)) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        teamHistory[MovePicker.historyIndex(move)] += depth * depth;
+    }
+
+    // Killers from the last search rarely fit the new one; history is halved so it keeps some weight
+    private void ageHeuristics() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        for (int[] teamHistory : history) {
+            for (int i = 0; i < teamHistory.length; i++) {
+                teamHistory[i] >>= 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs engine searches for a caller that must stay responsive, such as a server handling
+ * other requests: a search can be started in the background, watched through progress
+ * reports and cancelled from any thread.
+ * <p>
+ * One search runs at a time. Cancelling is cooperative: the search threads notice the
+ * request within a few thousand nodes and the search returns the best move of its deepest
+ * completed iteration, so a stopped search still has a move to play.
+ * <p>
+ * With an opening book set, a position found in the book is answered with a book move at
+ * once, without searching.
+ */
+public final class SearchController {
+
+    private final ParallelSearch search;
+    private final AtomicBoolean stopRequest = new AtomicBoolean();
+    private final Random random = new Random();
+    private volatile PolyglotBook book;
+    private boolean searching;
+
+    /**
+     * @param threads        Search threads, including the one running the main search
+     * @param hashMegabytes  Size of the transposition table shared by those threads
+     */
+    public SearchController(int threads, int hashMegabytes) {
+        this.search = new ParallelSearch(threads, new TranspositionTable(hashMegabytes));
+    }
+
+    // Uses one thread per available processor and a table of the default size
+    public SearchController() {
+        this(Runtime.getRuntime().availableProcessors(), Search.DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * Searches on the calling thread until a limit is reached or {@link #stop()} is called.
+     *
+     * @param game     The position to search; it is left in its original position when this returns
+     * @param limits   Depth, node and time bounds
+     * @param listener Receives progress reports on the calling thread, or null for none
+     * @return The best move and principal variation of the deepest completed iteration
+     * @throws IllegalStateException If a search is already running
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, SearchListener listener) {
+        SearchResult bookResult = probeBook(game);
+        if (bookResult != null) {
+            return bookResult;
+        }
+        begin();
+        try {
+            return search.search(game, limits, listener, stopRequest);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Starts a search on a background thread and returns at once. The search runs on a copy
+     * of the game, so the caller may keep changing the game while it runs.
+     *
+     * @param game     The position to search
+     * @param limits   Depth, node and time bounds; with none, the search runs until {@link #stop()}
+     * @param listener Receives progress reports on the search thread, or null for none
+     * @return Completes with the search result, or exceptionally if the search fails
+     * @throws IllegalStateException If a search is already running
+     */
+    public CompletableFuture<SearchResult> searchAsync(ChessGame game, SearchLimits limits, SearchListener listener) {
+        SearchResult bookResult = probeBook(game);
+        if (bookResult != null) {
+            return CompletableFuture.completedFuture(bookResult);
+        }
+        begin();
+        ChessGame copy = new ChessGame(game);
+        CompletableFuture<SearchResult> future = new CompletableFuture<>();
+        Thread worker = new Thread(() -> {
+            // The controller is free again before the future completes, so a caller may start the next search at once
+            SearchResult result;
+            try {
+                result = search.search(copy, limits, listener, stopRequest);
+            } catch (Throwable e) {
+                // Errors too, or callers waiting on the future would never return
+                finish();
+                future.completeExceptionally(e);
+                return;
+            }
+            finish();
+            future.complete(result);
+        }, "search-main");
+        worker.setDaemon(true);
+        try {
+            worker.start();
+        } catch (RuntimeException e) {
+            finish();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Asks the running search, if any, to stop. Safe to call from any thread; the search
+     * returns its best move so far shortly afterwards.
+     */
+    public void stop() {
+        stopRequest.set(true);
+    }
+
+    public synchronized boolean isSearching() {
+        return searching;
+    }
+
+    public TranspositionTable getTable() {
+        return search.getTable();
+    }
+
+    // Book to answer opening positions from, or null to always search
+    public void setBook(PolyglotBook book) {
+        this.book = book;
+    }
+
+    // A depth-0 result holding a weighted random book move, or null if the position is not in the book
+    private SearchResult probeBook(ChessGame game) {
+        PolyglotBook current = book;
+        ChessMove move = (current == null) ? null : current.pickMove(game, random);
+        if (move == null) {
+            return null;
+        }
+        return new SearchResult(new int[]{Move.encode(move)}, 0, 0, 0, 0);
+    }
+
+    // The flag is cleared here, before the search starts, so a stop() right after starting is not lost
+    private synchronized void begin() {
+        if (searching) {
+            throw new IllegalStateException("Error: A search is already running");
+        }
+        searching = true;
+        stopRequest.set(false);
+    }
+
+    private synchronized void finish() {
+        searching = false;
+    }
+}
@@ -0,0 +1,89 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of a running search, passed to a {@link SearchListener}. The depth, score and
+ * principal variation are those of the deepest completed iteration; the node count, time
+ * and table fill are current.
+ */
+public final class SearchInfo {
+
+    private final int depth;
+    private final int score;
+    private final int[] principalVariation;
+    private final long nodes;
+    private final long timeMillis;
+    private final int hashfull;
+
+    SearchInfo(int depth, int score, int[] principalVariation, long nodes, long timeMillis, int hashfull) {
+        this.depth = depth;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.hashfull = hashfull;
+    }
+
+    // Same snapshot with the node count replaced, e.g. by the total over several search threads
+    SearchInfo withNodes(long totalNodes) {
+        return new SearchInfo(depth, score, principalVariation, totalNodes, timeMillis, hashfull);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    // Centipawns from the side to move's point of view; see Search.isMateScore
+    public int getScore() {
+        return score;
+    }
+
+    public List<ChessMove> getPrincipalVariation() {
+        List<ChessMove> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(Move.toChessMove(move));
+        }
+        return moves;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(timeMillis, 1);
+    }
+
+    // Share of the transposition table filled by this search, 0 to 100
+    public double getHashFullPercent() {
+        return hashfull / 10.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder pv = new StringBuilder();
+        for (int move : principalVariation) {
+            if (pv.length() > 0) {
+                pv.append(' ');
+            }
+            pv.append(Move.toString(move));
+        }
+        return "SearchInfo{" +
+                "depth=" + depth +
+                ", score=" + score +
+                ", nodes=" + nodes +
+                ", nps=" + getNodesPerSecond() +
+                ", hashFull=" + getHashFullPercent() + "%" +
+                ", pv=" + pv +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+package chess.engine;
+
+/**
+ * Bounds on a single search. A search stops at whichever limit it reaches first;
+ * a limit of 0 means that dimension is unbounded.
+ */
+public final class SearchLimits {
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long maxTimeMillis;
+
+    /**
+     * @param maxDepth      Deepest iteration to complete, in plies, or 0 for no depth limit
+     * @param maxNodes      Nodes to visit before stopping, or 0 for no node limit
+     * @param maxTimeMillis Wall-clock time to search, or 0 for no time limit
+     */
+    public SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+        if (maxDepth < 0 || maxNodes < 0 || maxTimeMillis < 0) {
+            throw new IllegalArgumentException("Error: Search limits must not be negative");
+        }
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxTimeMillis = maxTimeMillis;
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0);
+    }
+
+    public static SearchLimits time(long maxTimeMillis) {
+        return new SearchLimits(0, 0, maxTimeMillis);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits{" +
+                "maxDepth=" + maxDepth +
+                ", maxNodes=" + maxNodes +
+                ", maxTimeMillis=" + maxTimeMillis +
+                '}';
+    }
+}
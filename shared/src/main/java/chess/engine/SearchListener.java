@@ -0,0 +1,12 @@
+package chess.engine;
+
+/**
+ * Receives progress reports from a running search: after every completed iteration and,
+ * from a single {@link Search}, periodically in between. {@link ParallelSearch} passes on
+ * only the main thread's completed iterations. Reports are delivered on the searching
+ * thread, so a listener should return quickly.
+ */
+public interface SearchListener {
+
+    void onProgress(SearchInfo info);
+}
@@ -0,0 +1,94 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a search: the best move and principal variation from the deepest
+ * completed iteration, with its score and the work spent finding it.
+ */
+public final class SearchResult {
+
+    private final int[] principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    SearchResult(int[] principalVariation, int score, int depth, long nodes, long timeMillis) {
+        this.principalVariation = principalVariation;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    // Same result with the node count replaced, e.g. by the total over several search threads
+    SearchResult withNodes(long totalNodes) {
+        return new SearchResult(principalVariation, score, depth, totalNodes, timeMillis);
+    }
+
+    // Best move, or null if the side to move has no legal moves
+    public ChessMove getBestMove() {
+        return (principalVariation.length > 0) ? Move.toChessMove(principalVariation[0]) : null;
+    }
+
+    // Best move in packed form (see Move), or Move.NONE
+    public int getBestMovePacked() {
+        return (principalVariation.length > 0) ? principalVariation[0] : Move.NONE;
+    }
+
+    public List<ChessMove> getPrincipalVariation() {
+        List<ChessMove> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(Move.toChessMove(move));
+        }
+        return moves;
+    }
+
+    /**
+     * Score in centipawns from the side to move's point of view. Forced mates are
+     * reported as values near {@link Search#MATE_SCORE}; see {@link Search#isMateScore}.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    // Deepest fully searched iteration, in plies
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(timeMillis, 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder pv = new StringBuilder();
+        for (int move : principalVariation) {
+            if (pv.length() > 0) {
+                pv.append(' ');
+            }
+            pv.append(Move.toString(move));
+        }
+        return "SearchResult{" +
+                "depth=" + depth +
+                ", score=" + score +
+                ", nodes=" + nodes +
+                ", timeMillis=" + timeMillis +
+                ", pv=" + pv +
+                '}';
+    }
+}
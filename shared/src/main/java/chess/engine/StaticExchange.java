@@ -0,0 +1,131 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+
+/**
+ * Static exchange evaluation (SEE): the material a move wins or loses if both sides then keep
+ * capturing on its target square, each always recapturing with its least valuable attacker
+ * and free to stop when continuing would lose material.
+ * <p>
+ * The exchange is worked out from attack sets alone, without making any moves. Pieces behind
+ * a capturing slider join in as it leaves the line (x-rays). Pins are not considered, so a
+ * pinned piece may be counted as a recapturer.
+ */
+public final class StaticExchange {
+
+    // Longest possible exchange: every piece on the board captures on the square once
+    static final int MAX_EXCHANGE = 32;
+
+    private static final ChessPiece.PieceType[] LEAST_VALUABLE_FIRST = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+
+    private StaticExchange() {
+    }
+
+    /**
+     * @param board The position before the move
+     * @param move  A move in packed form (see {@link Move}); a piece must stand on its start square
+     * @return Material gained by the side making the move, in centipawns; negative if it loses material
+     */
+    public static int evaluate(ChessBoard board, int move) {
+        return evaluate(board, move, new int[MAX_EXCHANGE]);
+    }
+
+    // Same as evaluate(board, move), working in a caller-owned buffer of MAX_EXCHANGE entries
+    static int evaluate(ChessBoard board, int move, int[] gain) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece mover = board.getPiece(from);
+        ChessPiece target = board.getPiece(to);
+
+        gain[0] = (target == null) ? 0 : value(target.getPieceType());
+        // Value of the piece standing on the target square, which the next capture would win
+        int onSquare = value(mover.getPieceType());
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            gain[0] += value(promotion) - value(ChessPiece.PieceType.PAWN);
+            onSquare = value(promotion);
+        }
+
+        long occupied = board.occupancy();
+        long capturer = 1L << from;
+        ChessGame.TeamColor side = mover.getTeamColor();
+        int depth = 0;
+        do {
+            // Speculatively assume the piece just moved to the square is captured in turn
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0 || depth == MAX_EXCHANGE - 1) {
+                break;
+            }
+
+            // Removing the capturer may uncover a slider behind it
+            occupied &= ~capturer;
+            long attackers = attackersTo(board, to, occupied) & occupied;
+            side = (side == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+            capturer = 0;
+            for (ChessPiece.PieceType type : LEAST_VALUABLE_FIRST) {
+                long candidates = attackers & board.pieces(side, type);
+                if (candidates != 0) {
+                    capturer = candidates & -candidates;
+                    onSquare = value(type);
+                    break;
+                }
+            }
+        } while (capturer != 0);
+
+        // Each side chooses between stopping and continuing the exchange, working back from the end
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * Evaluates the exchange started by a move given as a {@link ChessMove}.
+     *
+     * @param board The position before the move
+     * @param move  The move; a piece must stand on its start position
+     * @return Material gained by the side making the move, in centipawns
+     */
+    public static int evaluate(ChessBoard board, ChessMove move) {
+        return evaluate(board, Move.encode(move));
+    }
+
+    // Every piece of either team attacking the square through the given occupancy
+    private static long attackersTo(ChessBoard board, int square, long occupied) {
+        long queens = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)
+                | board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        long rooks = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)
+                | board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK) | queens;
+        long bishops = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP) | queens;
+        long knights = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                | board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        long kings = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)
+                | board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+
+        // A pawn attacks the square if a pawn of the other color on it would attack that pawn
+        return (Attacks.pawnAttacks(square, ChessGame.TeamColor.BLACK)
+                & board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN))
+                | (Attacks.pawnAttacks(square, ChessGame.TeamColor.WHITE)
+                & board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN))
+                | (Attacks.knightAttacks(square) & knights)
+                | (Attacks.kingAttacks(square) & kings)
+                | (Attacks.rookAttacks(square, occupied) & rooks)
+                | (Attacks.bishopAttacks(square, occupied) & bishops);
+    }
+
+    private static int value(ChessPiece.PieceType type) {
+        // A king is worth more than any exchange, so it never captures onto a defended square
+        return (type == ChessPiece.PieceType.KING) ? 20000 : Evaluator.PIECE_VALUES[type.ordinal()];
+    }
+}
@@ -0,0 +1,228 @@
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free table of search results keyed by position key.
+ * <p>
+ * Entries live in a single preallocated {@code long[]}, two longs per entry and two entries per
+ * bucket. The first long holds the position key XOR the second, which packs the best move,
+ * score, depth, bound type and the search generation that wrote it. Threads read and write
+ * without locks; an entry torn by a concurrent write fails the XOR check and reads as a miss.
+ * <p>
+ * When a bucket is full, the entry to replace is the one with the lowest depth, counting
+ * entries left over from earlier searches as shallower the older they are, so deep results
+ * survive within a search while stale ones are recycled.
+ */
+public final class TranspositionTable {
+
+    // Bound types: the stored score is exact, a lower bound (fail high) or an upper bound (fail low)
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+
+    // Layout of the packed data word
+    private static final int MOVE_BITS = 17;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + 16;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int GENERATION_SHIFT = BOUND_SHIFT + 2;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+
+    // Each generation of age costs a stored entry this many plies of depth when choosing a victim
+    private static final int AGE_PENALTY = 4;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private volatile int generation;
+
+    /**
+     * @param megabytes Size of the table; rounded down to a power-of-two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Error: Transposition table size must be positive");
+        }
+        long buckets = (long) megabytes * 1024 * 1024 / (BYTES_PER_ENTRY * ENTRIES_PER_BUCKET);
+        int bucketCount = Integer.highestOneBit((int) Math.min(buckets, Integer.MAX_VALUE / (LONGS_PER_ENTRY * ENTRIES_PER_BUCKET)));
+        table = new long[bucketCount * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY];
+        bucketMask = bucketCount - 1;
+    }
+
+    /**
+     * Starts a new search, so entries from earlier searches become candidates for replacement.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    // Removes every entry and resets the statistics
+    public void clear() {
+        Arrays.fill(table, 0);
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The position key
+     * @return The packed data word (read it with the static accessors), or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = bucketIndex(key);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++, index += LONGS_PER_ENTRY) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key && data != 0) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Records the result of searching a position.
+     *
+     * @param key   The position key
+     * @param move  Best move found in packed form, or {@link Move#NONE}
+     * @param score Score, with mate scores already made relative to this position (see {@link #scoreToTable})
+     * @param depth Remaining depth the position was searched to
+     * @param bound One of the BOUND_ constants
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int bucket = bucketIndex(key);
+        int target = bucket;
+        int lowestPriority = Integer.MAX_VALUE;
+        int current = generation;
+
+        for (int i = 0, index = bucket; i < ENTRIES_PER_BUCKET; i++, index += LONGS_PER_ENTRY) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key) {
+                // Same position: keep the old move if this search found none
+                if (move == Move.NONE) {
+                    move = move(data);
+                }
+                target = index;
+                break;
+            }
+            int age = (current - generation(data)) & 0xFF;
+            int priority = depth(data) - AGE_PENALTY * age;
+            if (data == 0) {
+                priority = Integer.MIN_VALUE;
+            }
+            if (priority < lowestPriority) {
+                lowestPriority = priority;
+                target = index;
+            }
+        }
+
+        long data = (move & MOVE_MASK)
+                | ((long) (score + 0x8000) << SCORE_SHIFT)
+                | ((long) Math.min(Math.max(depth, 0), 0xFF) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) current << GENERATION_SHIFT);
+        table[target + 1] = data;
+        table[target] = key ^ data;
+    }
+
+    public static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - 0x8000;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> GENERATION_SHIFT) & 0xFF);
+    }
+
+    /**
+     * Converts a search score at the given ply to a table score. Mate scores count plies from the
+     * root during search; stored ones count from the position itself so they stay correct when
+     * the position is reached at a different ply.
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score >= Search.MATE_SCORE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE_SCORE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    // Inverse of scoreToTable
+    public static int scoreFromTable(int score, int ply) {
+        if (score >= Search.MATE_SCORE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE_SCORE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private int bucketIndex(long key) {
+        // The low key bits pick the bucket; the full key is still verified on every read
+        return ((int) key & bucketMask) * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+    }
+
+    // Lookups since the last clear
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    // Lookups that found their position since the last clear
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double getHitRate() {
+        long total = probes.sum();
+        return (total == 0) ? 0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its first buckets, counting only
+     * entries written by the current search.
+     *
+     * @return Occupied entries per thousand
+     */
+    public int getHashfull() {
+        int current = generation;
+        int sampled = Math.min(1000, table.length / LONGS_PER_ENTRY);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long data = table[i * LONGS_PER_ENTRY + 1];
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+
+    // Number of entries the table can hold
+    public int getCapacity() {
+        return table.length / LONGS_PER_ENTRY;
+    }
+}
@@ -0,0 +1,72 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessBoardJsonTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void testWritesOnlyPlacement() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        String json = gson.toJson(board);
+        assertTrue(json.startsWith("{\"squares\":[["), json);
+        assertFalse(json.contains("zobristKey"), json);
+        assertFalse(json.contains("pieceBitboards"), json);
+        assertFalse(json.contains("middlegameScore"), json);
+    }
+
+    @Test
+    public void testRoundTripRebuildsDerivedState() {
+        ChessGame game = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1");
+        ChessGame copy = gson.fromJson(gson.toJson(game), ChessGame.class);
+        ChessBoard board = game.getBoard();
+        ChessBoard parsed = copy.getBoard();
+
+        assertEquals(board, parsed);
+        assertEquals(board.getZobristKey(), parsed.getZobristKey());
+        assertEquals(board.getMiddlegameScore(), parsed.getMiddlegameScore());
+        assertEquals(board.getEndgameScore(), parsed.getEndgameScore());
+        assertEquals(board.getPhase(), parsed.getPhase());
+        assertEquals(board.getKingPosition(ChessGame.TeamColor.BLACK), parsed.getKingPosition(ChessGame.TeamColor.BLACK));
+        assertEquals(game.validMoves(new ChessPosition(5, 5)), copy.validMoves(new ChessPosition(5, 5)));
+    }
+
+    @Test
+    public void testReadsOriginalSquaresArray() {
+        // Row 1 first, as the original ChessPiece[8][8] field was written by reflective Gson
+        StringBuilder json = new StringBuilder("{\"squares\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append(row > 1 ? ",[" : "[");
+            for (int column = 1; column <= 8; column++) {
+                json.append(column > 1 ? "," : "");
+                if (row == 1 && column == 5) {
+                    json.append("{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}");
+                } else if (row == 8 && column == 1) {
+                    json.append("{\"pieceColor\":\"BLACK\",\"type\":\"ROOK\"}");
+                } else {
+                    json.append("null");
+                }
+            }
+            json.append("]");
+        }
+        json.append("]}");
+
+        ChessBoard parsed = gson.fromJson(json.toString(), ChessBoard.class);
+        ChessBoard expected = new ChessBoard();
+        expected.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        expected.addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        assertEquals(expected, parsed);
+        assertEquals(expected.getZobristKey(), parsed.getZobristKey());
+        assertEquals(new ChessPosition(1, 5), parsed.getKingPosition(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void testRejectsWrongSquareCount() {
+        assertThrows(RuntimeException.class, () -> gson.fromJson("{\"squares\":[null,null]}", ChessBoard.class));
+    }
+}
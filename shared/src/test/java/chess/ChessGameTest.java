@@ -0,0 +1,248 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessGameTest {
+
+    @Test
+    public void testMakeMoveOffBoardEndSquare() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        // Row 1, column 9 must not wrap around to a2
+        ChessMove move = new ChessMove(new ChessPosition(1, 1), new ChessPosition(1, 9), null);
+        assertFalse(game.isLegal(move));
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(move));
+        assertEquals("4k3/8/8/8/8/8/8/R3K3 w - - 0 1", Fen.format(game));
+    }
+
+    @Test
+    public void testMakeMoveOffBoardStartSquare() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        ChessMove move = new ChessMove(new ChessPosition(0, 1), new ChessPosition(2, 1), null);
+        assertFalse(game.isLegal(move));
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(move));
+    }
+
+    @Test
+    public void testBoardRejectsOffBoardPositions() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        assertThrows(IndexOutOfBoundsException.class, () -> board.addPiece(new ChessPosition(1, 9), rook));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(new ChessPosition(9, 1)));
+        assertNull(board.getPiece(new ChessPosition(2, 1)));
+    }
+
+    @Test
+    public void testThreefoldKnightShuffle() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8"};
+        int[] expected = {1, 1, 1, 2, 2, 2, 2, 3};
+        for (int i = 0; i < shuffle.length; i++) {
+            game.makeMove(move(shuffle[i]));
+            assertEquals(expected[i], game.repetitionCount(), "after " + shuffle[i] + " at ply " + (i + 1));
+            assertEquals(i == shuffle.length - 1, game.isThreefoldRepetition());
+        }
+        assertTrue(game.canClaimDraw());
+        assertEquals(8, game.getHalfmoveClock());
+    }
+
+    @Test
+    public void testPawnMoveAndCaptureResetHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (String step : new String[]{"g1f3", "g8f6", "f3g1", "f6g8"}) {
+            game.makeMove(move(step));
+        }
+        assertEquals(2, game.repetitionCount());
+
+        game.makeMove(move("e2e4"));
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(1, game.repetitionCount());
+
+        for (String step : new String[]{"g8f6", "b1c3", "f6e4"}) {
+            game.makeMove(move(step));
+        }
+        // Nxe4 captured a pawn
+        assertEquals(0, game.getHalfmoveClock());
+        game.makeMove(move("c3e4"));
+        assertEquals(0, game.getHalfmoveClock());
+        game.makeMove(move("b8c6"));
+        assertEquals(1, game.getHalfmoveClock());
+        assertEquals(1, game.repetitionCount());
+    }
+
+    @Test
+    public void testFiftyMoveRuleFromFenClock() throws InvalidMoveException {
+        ChessGame game = Fen.parse("7k/8/6K1/8/8/8/8/R7 w - - 99 80");
+        assertEquals(99, game.getHalfmoveClock());
+        assertFalse(game.isFiftyMoveRule());
+
+        game.makeMove(move("a1a2"));
+        assertEquals(100, game.getHalfmoveClock());
+        assertTrue(game.isFiftyMoveRule());
+        assertTrue(game.canClaimDraw());
+    }
+
+    @Test
+    public void testCheckmateOnHundredthPlyIsNotDraw() throws InvalidMoveException {
+        ChessGame game = Fen.parse("7k/8/6K1/8/8/8/8/R7 w - - 99 80");
+        game.makeMove(move("a1a8"));
+        assertEquals(100, game.getHalfmoveClock());
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        assertFalse(game.isFiftyMoveRule());
+        assertFalse(game.canClaimDraw());
+    }
+
+    @Test
+    public void testUndoRestoresEveryMove() {
+        String[] positions = {
+                Fen.START_POSITION,
+                // Kings and rooks on their castling squares with the squares between them empty
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 3 1",
+                // Double pushes landing beside enemy pawns, where en passant would apply
+                "4k3/1p1p4/8/2P1P3/8/8/8/4K3 b - - 7 1",
+                "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+        };
+        for (String fen : positions) {
+            ChessGame game = Fen.parse(fen);
+            MoveList moves = new MoveList();
+            game.legalMoves(game.getTeamTurn(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                String before = snapshot(game);
+                game.doMove(moves.get(i));
+                game.undoMove();
+                assertEquals(before, snapshot(game), fen + " after " + Move.toChessMove(moves.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testUndoPromotionCapture() {
+        ChessGame game = Fen.parse("n1n5/PPPk4/8/8/8/8/4K3/8 w - - 12 1");
+        String before = snapshot(game);
+        ChessBoard board = new ChessBoard(game.getBoard());
+
+        game.doMove(new ChessMove(ChessPosition.of(7, 2), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN));
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                game.getBoard().getPiece(ChessPosition.of(8, 1)));
+        assertNull(game.getBoard().getPiece(ChessPosition.of(7, 2)));
+        assertEquals(0, game.getHalfmoveClock());
+
+        game.undoMove();
+        assertEquals(before, snapshot(game));
+        assertEquals(board, game.getBoard());
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(8, 1)));
+        assertEquals(0, game.getUndoDepth());
+    }
+
+    @Test
+    public void testUndoSequenceRestoresStart() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        String start = snapshot(game);
+        String[] line = {"e2e4", "d7d5", "e4d5", "d8d5", "b1c3", "d5a5", "g1f3", "g8f6"};
+        for (String step : line) {
+            game.makeMove(move(step));
+        }
+        assertEquals(line.length, game.getUndoDepth());
+        for (int i = 0; i < line.length; i++) {
+            game.undoMove();
+        }
+        assertEquals(start, snapshot(game));
+        assertThrows(IllegalStateException.class, game::undoMove);
+    }
+
+    @Test
+    public void testCacheInvalidatedByMakeMoveAndUndo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        assertMatchesFreshCopy(game);
+        for (String step : new String[]{"f2f3", "e7e5", "g2g4", "d8h4"}) {
+            game.makeMove(move(step));
+            assertMatchesFreshCopy(game);
+        }
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+
+        game.undoMove();
+        assertMatchesFreshCopy(game);
+        assertFalse(game.isInCheck(ChessGame.TeamColor.WHITE));
+        assertFalse(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void testCacheInvalidatedBySetBoard() {
+        ChessGame game = new ChessGame();
+        assertMatchesFreshCopy(game);
+
+        game.setBoard(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").getBoard());
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertMatchesFreshCopy(game);
+        assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        assertTrue(game.validMoves(ChessPosition.of(8, 8)).isEmpty());
+    }
+
+    @Test
+    public void testCacheInvalidatedBySetTeamTurn() {
+        ChessGame game = new ChessGame();
+        ChessMove blackMove = move("e7e5");
+        assertFalse(game.isLegal(blackMove));
+        assertMatchesFreshCopy(game);
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertTrue(game.isLegal(blackMove));
+        assertFalse(game.isLegal(move("e2e4")));
+        assertMatchesFreshCopy(game);
+    }
+
+    @Test
+    public void testCacheInvalidatedByBoardEdits() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertMatchesFreshCopy(game);
+        assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK));
+
+        // Edits through getBoard bypass the game, so the cache must notice the changed key
+        ChessPiece rook = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        game.getBoard().addPiece(ChessPosition.of(1, 5), null);
+        game.getBoard().addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        game.getBoard().addPiece(ChessPosition.of(3, 5), rook);
+        assertMatchesFreshCopy(game);
+        assertTrue(game.isInCheck(ChessGame.TeamColor.BLACK));
+
+        game.getBoard().addPiece(ChessPosition.of(3, 5), null);
+        assertMatchesFreshCopy(game);
+        assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK));
+    }
+
+    // Every cached query on the game must agree with a copy, which starts with an empty cache
+    private static void assertMatchesFreshCopy(ChessGame game) {
+        ChessGame fresh = new ChessGame(game);
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            assertEquals(fresh.isInCheck(color), game.isInCheck(color));
+            assertEquals(fresh.isInCheckmate(color), game.isInCheckmate(color));
+            assertEquals(fresh.isInStalemate(color), game.isInStalemate(color));
+        }
+        for (int row = 1; row <= 8; row++) {
+            for (int column = 1; column <= 8; column++) {
+                ChessPosition position = ChessPosition.of(row, column);
+                assertEquals(new HashSet<>(fresh.validMoves(position)), new HashSet<>(game.validMoves(position)),
+                        "moves from " + position);
+            }
+        }
+    }
+
+    // Placement, turn and clock as FEN, plus the incrementally kept key, evaluation totals and king squares
+    private static String snapshot(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        return Fen.format(game) + " key=" + game.positionKey() + " placement=" + board.getZobristKey()
+                + " mg=" + board.getMiddlegameScore() + " eg=" + board.getEndgameScore() + " phase=" + board.getPhase()
+                + " kings=" + board.getKingPosition(ChessGame.TeamColor.WHITE) + board.getKingPosition(ChessGame.TeamColor.BLACK)
+                + " undo=" + game.getUndoDepth();
+    }
+
+    // Move in coordinate notation, e.g. "g1f3"
+    private static ChessMove move(String text) {
+        return new ChessMove(new ChessPosition(text.charAt(1) - '0', text.charAt(0) - 'a' + 1),
+                new ChessPosition(text.charAt(3) - '0', text.charAt(2) - 'a' + 1), null);
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Leaf counts for positions with published perft results. The game has no castling or
+ * en passant, so only depths where neither rule can occur are checked against them.
+ */
+public class PerftTest {
+
+    private static final String PROMOTION_POSITION = "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1";
+
+    private static final long[] START_COUNTS = {1, 20, 400, 8902, 197281};
+    private static final long[] PROMOTION_COUNTS = {1, 24, 496, 9483, 182838};
+
+    @Test
+    public void testStartPosition() {
+        for (int depth = 0; depth < START_COUNTS.length; depth++) {
+            assertEquals(START_COUNTS[depth], Fen.parse(Fen.START_POSITION).perft(depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    public void testPromotionPosition() {
+        for (int depth = 0; depth < PROMOTION_COUNTS.length; depth++) {
+            assertEquals(PROMOTION_COUNTS[depth], Fen.parse(PROMOTION_POSITION).perft(depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    public void testParallelWithoutHash() {
+        Perft perft = new Perft(4, 0);
+        assertEquals(START_COUNTS[4], perft.perft(Fen.parse(Fen.START_POSITION), 4));
+        assertEquals(PROMOTION_COUNTS[4], perft.perft(Fen.parse(PROMOTION_POSITION), 4));
+    }
+
+    @Test
+    public void testParallelWithHash() {
+        // A tiny table forces overwrites between subtrees
+        for (long hashBytes : new long[]{1 << 20, 1 << 10}) {
+            Perft perft = new Perft(4, hashBytes);
+            assertEquals(START_COUNTS[4], perft.perft(Fen.parse(Fen.START_POSITION), 4), "hash " + hashBytes);
+            assertEquals(PROMOTION_COUNTS[4], perft.perft(Fen.parse(PROMOTION_POSITION), 4), "hash " + hashBytes);
+        }
+    }
+
+    @Test
+    public void testDivideSumsToPerft() {
+        ChessGame game = Fen.parse(PROMOTION_POSITION);
+        Map<ChessMove, Long> counts = game.divide(3);
+        assertEquals(PROMOTION_COUNTS[1], (long) counts.size());
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        assertEquals(PROMOTION_COUNTS[3], total);
+        assertEquals(Fen.format(Fen.parse(PROMOTION_POSITION)), Fen.format(game));
+    }
+}
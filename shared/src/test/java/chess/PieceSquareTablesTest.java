@@ -0,0 +1,88 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PieceSquareTablesTest {
+
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+            // Promotions and promotions that capture for both sides
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+            "4k3/1p1p4/8/2P1P3/8/8/8/4K3 b - - 0 1",
+    };
+
+    @Test
+    public void testStartPosition() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertEquals(ChessBoard.MAX_PHASE, board.getPhase());
+        // The start position is symmetric, so the white and black values cancel
+        assertEquals(0, board.getMiddlegameScore());
+        assertEquals(0, board.getEndgameScore());
+    }
+
+    @Test
+    public void testIncrementalTotalsMatchRecompute() {
+        Random random = new Random(11);
+        MoveList moves = new MoveList();
+        for (String fen : POSITIONS) {
+            for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+                ChessGame game = Fen.parse(fen);
+                assertMatchesRecompute(game.getBoard());
+                for (int ply = 0; ply < 60; ply++) {
+                    game.legalMoves(game.getTeamTurn(), moves);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    // Prefer captures and promotions so the material terms change often
+                    int move = moves.get(random.nextInt(moves.size()));
+                    for (int i = 0; i < moves.size(); i++) {
+                        int candidate = moves.get(i);
+                        if ((Move.isPromotion(candidate) || game.getBoard().getPiece(Move.to(candidate)) != null)
+                                && random.nextBoolean()) {
+                            move = candidate;
+                            break;
+                        }
+                    }
+                    game.doMove(move);
+                    assertMatchesRecompute(game.getBoard());
+                }
+                while (game.getUndoDepth() > 0) {
+                    game.undoMove();
+                    assertMatchesRecompute(game.getBoard());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPhaseIsCappedAfterPromotions() {
+        // Two extra queens on top of a full set of pieces
+        ChessGame game = Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        game.getBoard().addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        game.getBoard().addPiece(ChessPosition.of(4, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        assertEquals(ChessBoard.MAX_PHASE, game.getBoard().getPhase());
+    }
+
+    private static void assertMatchesRecompute(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                middlegame += PieceSquareTables.middlegame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
+        assertEquals(middlegame, board.getMiddlegameScore());
+        assertEquals(endgame, board.getEndgameScore());
+        assertEquals(Math.min(phase, ChessBoard.MAX_PHASE), board.getPhase());
+    }
+}
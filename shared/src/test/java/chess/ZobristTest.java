@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTest {
+
+    @Test
+    public void testIncrementalKeyMatchesRecompute() {
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            assertEquals(recompute(game), game.positionKey());
+            for (int ply = 0; ply < 80; ply++) {
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.doMove(moves.get(random.nextInt(moves.size())));
+                assertEquals(recompute(game), game.positionKey(), "game " + gameNumber + " ply " + ply);
+            }
+            while (game.getUndoDepth() > 0) {
+                game.undoMove();
+                assertEquals(recompute(game), game.positionKey());
+            }
+        }
+    }
+
+    @Test
+    public void testTranspositionsShareAKey() throws InvalidMoveException {
+        ChessGame first = play("g1f3", "g8f6", "b1c3", "b8c6", "e2e4");
+        ChessGame second = play("b1c3", "b8c6", "e2e4", "g8f6", "g1f3");
+        assertEquals(first.getBoard(), second.getBoard());
+        assertEquals(first.positionKey(), second.positionKey());
+
+        // The same position loaded from FEN, with its pieces placed in another order
+        ChessGame parsed = Fen.parse(Fen.format(first));
+        assertEquals(first.positionKey(), parsed.positionKey());
+    }
+
+    @Test
+    public void testSideToMoveChangesKey() throws InvalidMoveException {
+        ChessGame knightsOut = play("g1f3", "g8f6");
+        ChessGame knightsBack = play("g1f3", "g8f6", "f3g1", "f6g8");
+        ChessGame start = new ChessGame();
+        assertEquals(start.positionKey(), knightsBack.positionKey());
+        assertNotEquals(start.positionKey(), knightsOut.positionKey());
+
+        ChessGame blackToMove = new ChessGame();
+        blackToMove.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(start.getBoard().getZobristKey(), blackToMove.getBoard().getZobristKey());
+        assertEquals(start.positionKey() ^ Zobrist.BLACK_TO_MOVE, blackToMove.positionKey());
+    }
+
+    // Key of the game's position hashed from scratch, square by square
+    private static long recompute(ChessGame game) {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = game.getBoard().getPiece(square);
+            if (piece != null) {
+                key ^= Zobrist.pieceKey(piece, square);
+            }
+        }
+        return (game.getTeamTurn() == ChessGame.TeamColor.BLACK) ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
+    private static ChessGame play(String... line) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (String step : line) {
+            game.makeMove(new ChessMove(ChessPosition.of(step.charAt(1) - '0', step.charAt(0) - 'a' + 1),
+                    ChessPosition.of(step.charAt(3) - '0', step.charAt(2) - 'a' + 1), null));
+        }
+        return game;
+    }
+}
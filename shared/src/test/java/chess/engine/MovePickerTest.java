@@ -0,0 +1,81 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import chess.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovePickerTest {
+
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "4k3/8/8/4p3/8/5N2/8/4K3 w - - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+            "4k3/8/8/8/8/8/4r3/4K3 w - - 0 1",
+    };
+
+    @Test
+    public void testCaptureMatchingAKillerIsStillPicked() {
+        ChessGame game = Fen.parse("4k3/8/8/4p3/8/5N2/8/4K3 w - - 0 1");
+        // f3e5 was a quiet killer at a sibling node; here it captures the pawn
+        int killer = Move.encode(21, 36, null, 0);
+        assertEquals(legalMoves(game), pickedMoves(game, Move.NONE, killer, Move.NONE));
+    }
+
+    @Test
+    public void testPickerReturnsExactlyTheLegalMoves() {
+        Random random = new Random(11);
+        for (String fen : POSITIONS) {
+            ChessGame game = Fen.parse(fen);
+            List<Integer> legal = legalMoves(game);
+            assertEquals(legal, pickedMoves(game, Move.NONE, Move.NONE, Move.NONE), fen);
+
+            // Hash moves and killers drawn from every square pair, legal here or not
+            for (int i = 0; i < 200; i++) {
+                int hash = (random.nextInt(4) == 0) ? Move.NONE : Move.encode(random.nextInt(64), random.nextInt(64), null, 0);
+                int killer1 = Move.encode(random.nextInt(64), random.nextInt(64), null, 0);
+                int killer2 = (i % 2 == 0) ? killer1 : Move.encode(random.nextInt(64), random.nextInt(64), null, 0);
+                assertEquals(legal, pickedMoves(game, hash, killer1, killer2), fen);
+            }
+
+            // Every legal move as hash move and killer
+            for (int move : legal) {
+                assertEquals(legal, pickedMoves(game, move, move, Move.NONE), fen);
+                assertEquals(legal, pickedMoves(game, Move.NONE, move, move), fen);
+            }
+        }
+    }
+
+    private static List<Integer> pickedMoves(ChessGame game, int hash, int killer1, int killer2) {
+        MovePicker picker = new MovePicker();
+        picker.init(game.getBoard(), game.getTeamTurn(), hash, killer1, killer2, new int[64 * 64]);
+        List<Integer> moves = new ArrayList<>();
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            moves.add(Move.encode(Move.from(move), Move.to(move), Move.promotion(move), 0));
+        }
+        Collections.sort(moves);
+        return moves;
+    }
+
+    private static List<Integer> legalMoves(ChessGame game) {
+        MoveList list = new MoveList();
+        game.legalMoves(game.getTeamTurn(), list);
+        List<Integer> moves = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            moves.add(Move.encode(Move.from(move), Move.to(move), Move.promotion(move), 0));
+        }
+        Collections.sort(moves);
+        return moves;
+    }
+}
@@ -0,0 +1,86 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTest {
+
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+    };
+
+    @Test
+    public void testSingleThread() {
+        assertFixedDepthSearch(1);
+    }
+
+    @Test
+    public void testFourThreads() {
+        assertFixedDepthSearch(4);
+    }
+
+    @Test
+    public void testReportsEachMainIterationOnce() {
+        ParallelSearch search = new ParallelSearch(4, new TranspositionTable(16));
+        List<Integer> depths = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        SearchResult result = search.search(new ChessGame(), SearchLimits.depth(5), info -> {
+            assertSame(caller, Thread.currentThread());
+            depths.add(info.getDepth());
+        });
+        assertEquals(List.of(1, 2, 3, 4, 5), depths);
+        assertEquals(5, result.getDepth());
+        assertEquals(0, runningHelpers());
+    }
+
+    @Test
+    public void testStopFromAnotherThread() throws InterruptedException {
+        ParallelSearch search = new ParallelSearch(3, new TranspositionTable(16));
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            search.stop();
+        });
+        stopper.start();
+        ChessGame game = new ChessGame();
+        SearchResult result = search.search(game, new SearchLimits(0, 0, 0));
+        stopper.join();
+        assertTrue(game.isLegal(result.getBestMove()));
+        assertEquals(0, runningHelpers());
+    }
+
+    private static void assertFixedDepthSearch(int threads) {
+        ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(16));
+        for (String fen : POSITIONS) {
+            ChessGame game = Fen.parse(fen);
+            SearchResult result = search.search(game, SearchLimits.depth(5));
+            assertEquals(5, result.getDepth());
+            assertNotNull(result.getBestMove());
+            assertTrue(game.isLegal(result.getBestMove()), fen + " " + result.getBestMove());
+            assertEquals(fen, Fen.format(game));
+            assertTrue(result.getNodes() > 0);
+            assertEquals(0, runningHelpers());
+        }
+    }
+
+    // Helper threads still alive after a search has returned
+    private static int runningHelpers() {
+        int running = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("search-helper-") && thread.isAlive()) {
+                running++;
+            }
+        }
+        return running;
+    }
+}
@@ -0,0 +1,139 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolyglotBookTest {
+
+    // Published Polyglot keys; neither position has an en passant capture available
+    private static final long START_KEY = 0x463B96181691FC9CL;
+    private static final long AFTER_E4_KEY = 0x823C9B50FD114196L;
+    private static final long AFTER_E4_D5_KEY = 0x0756B94461C50FB0L;
+
+    private static final String PROMOTION_FEN = "4k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+    private static final String CASTLING_FEN = "r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1";
+
+    @Test
+    public void testKnownKeys() throws Exception {
+        ChessGame game = new ChessGame();
+        assertEquals(START_KEY, key(game));
+        game.makeMove(move("e2e4", null));
+        assertEquals(AFTER_E4_KEY, key(game));
+        game.makeMove(move("d7d5", null));
+        assertEquals(AFTER_E4_D5_KEY, key(game));
+    }
+
+    @Test
+    public void testLookupAcrossSignBoundary() throws Exception {
+        // 0x823C... is negative as a signed long, so it only sorts after 0x463B... when compared unsigned
+        PolyglotBook book = open(
+                entry(1L, "a2a3", 1),
+                entry(START_KEY, "e2e4", 10),
+                entry(START_KEY, "d2d4", 5),
+                entry(Long.MAX_VALUE, "a2a4", 1),
+                entry(AFTER_E4_KEY, "c7c5", 7),
+                entry(AFTER_E4_KEY, "e7e5", 3),
+                entry(-1L, "h2h3", 1));
+        assertEquals(7, book.size());
+
+        ChessGame game = new ChessGame();
+        List<BookMove> moves = book.getMoves(game);
+        assertEquals(2, moves.size());
+        assertEquals(move("e2e4", null), moves.get(0).getMove());
+        assertEquals(10, moves.get(0).getWeight());
+        assertEquals(move("d2d4", null), moves.get(1).getMove());
+
+        game.makeMove(move("e2e4", null));
+        moves = book.getMoves(game);
+        assertEquals(2, moves.size());
+        assertEquals(move("c7c5", null), moves.get(0).getMove());
+        assertEquals(move("e7e5", null), moves.get(1).getMove());
+
+        game.makeMove(move("c7c5", null));
+        assertTrue(book.getMoves(game).isEmpty());
+        assertNull(book.pickMove(game, new Random(1)));
+    }
+
+    @Test
+    public void testPromotionDecoding() throws Exception {
+        ChessGame game = Fen.parse(PROMOTION_FEN);
+        long key = key(game);
+        // Promotion codes 4 and 1 are a queen and a knight
+        PolyglotBook book = open(entry(key, "a7a8", 4 << 12, 20), entry(key, "a7a8", 1 << 12, 2));
+
+        List<BookMove> moves = book.getMoves(game);
+        assertEquals(2, moves.size());
+        assertEquals(move("a7a8", ChessPiece.PieceType.QUEEN), moves.get(0).getMove());
+        assertEquals(move("a7a8", ChessPiece.PieceType.KNIGHT), moves.get(1).getMove());
+    }
+
+    @Test
+    public void testCastlingEntriesAreSkipped() throws Exception {
+        ChessGame game = Fen.parse(CASTLING_FEN);
+        long key = key(game);
+        // Polyglot writes castling as the king taking its own rook, which this tree cannot play
+        PolyglotBook book = open(entry(key, "e1h1", 50), entry(key, "e1a1", 40), entry(key, "a1a8", 1));
+
+        List<BookMove> moves = book.getMoves(game);
+        assertEquals(1, moves.size());
+        assertEquals(move("a1a8", null), moves.get(0).getMove());
+        assertEquals(move("a1a8", null), book.pickMove(game, new Random(1)));
+    }
+
+    @Test
+    public void testRejectsPartialEntries() throws Exception {
+        Path file = Files.createTempFile("book", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, new byte[20]);
+        assertThrows(IOException.class, () -> PolyglotBook.open(file));
+    }
+
+    private static long key(ChessGame game) {
+        return PolyglotBook.key(game.getBoard(), game.getTeamTurn());
+    }
+
+    private static ChessMove move(String move, ChessPiece.PieceType promotion) {
+        return new ChessMove(new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), promotion);
+    }
+
+    private static byte[] entry(long key, String move, int weight) {
+        return entry(key, move, 0, weight);
+    }
+
+    // One 16-byte book entry: key, move (to file, to row, from file, from row, promotion), weight, learn
+    private static byte[] entry(long key, String move, int promotion, int weight) {
+        int encoded = (move.charAt(2) - 'a') | (move.charAt(3) - '1') << 3
+                | (move.charAt(0) - 'a') << 6 | (move.charAt(1) - '1') << 9 | promotion;
+        return ByteBuffer.allocate(16).putLong(key).putShort((short) encoded)
+                .putShort((short) weight).putInt(0).array();
+    }
+
+    // Writes the entries, sorted by unsigned key as a real book is, and opens the file
+    private static PolyglotBook open(byte[]... entries) throws IOException {
+        List<byte[]> sorted = new ArrayList<>(List.of(entries));
+        sorted.sort((a, b) -> Long.compareUnsigned(ByteBuffer.wrap(a).getLong(), ByteBuffer.wrap(b).getLong()));
+        ByteBuffer file = ByteBuffer.allocate(16 * sorted.size());
+        for (byte[] entry : sorted) {
+            file.put(entry);
+        }
+        Path path = Files.createTempFile("book", ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, file.array());
+        return PolyglotBook.open(path);
+    }
+}
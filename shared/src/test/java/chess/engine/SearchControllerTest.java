@@ -0,0 +1,79 @@
+package chess.engine;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchControllerTest {
+
+    private static final SearchLimits UNLIMITED = new SearchLimits(0, 0, 0);
+
+    @Test
+    public void testStopCancelsAsyncSearch() throws Exception {
+        SearchController controller = new SearchController(2, 16);
+        CountDownLatch started = new CountDownLatch(1);
+        ChessGame game = new ChessGame();
+        CompletableFuture<SearchResult> future = controller.searchAsync(game, UNLIMITED, info -> started.countDown());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(controller.isSearching());
+
+        controller.stop();
+        SearchResult result = future.get(10, TimeUnit.SECONDS);
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(game.isLegal(result.getBestMove()));
+        assertFalse(controller.isSearching());
+    }
+
+    @Test
+    public void testSecondSearchWhileBusyIsRejected() throws Exception {
+        SearchController controller = new SearchController(1, 16);
+        CompletableFuture<SearchResult> future = controller.searchAsync(new ChessGame(), UNLIMITED, null);
+        assertThrows(IllegalStateException.class, () -> controller.searchAsync(new ChessGame(), UNLIMITED, null));
+        assertThrows(IllegalStateException.class, () -> controller.search(new ChessGame(), SearchLimits.depth(1), null));
+
+        controller.stop();
+        future.get(10, TimeUnit.SECONDS);
+        // Free again as soon as the first search's future has completed
+        SearchResult next = controller.searchAsync(new ChessGame(), SearchLimits.depth(2), null).get(10, TimeUnit.SECONDS);
+        assertEquals(2, next.getDepth());
+    }
+
+    @Test
+    public void testListenerProgress() throws Exception {
+        SearchController controller = new SearchController(2, 16);
+        List<SearchInfo> reports = new ArrayList<>();
+        SearchResult result = controller.searchAsync(new ChessGame(), SearchLimits.depth(5), reports::add)
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(5, reports.size());
+        for (int i = 0; i < reports.size(); i++) {
+            SearchInfo info = reports.get(i);
+            assertEquals(i + 1, info.getDepth());
+            assertFalse(info.getPrincipalVariation().isEmpty());
+            assertTrue(info.getNodes() > 0);
+            assertTrue(info.getHashFullPercent() >= 0 && info.getHashFullPercent() <= 100);
+        }
+        SearchInfo last = reports.get(reports.size() - 1);
+        assertEquals(result.getBestMove(), last.getPrincipalVariation().get(0));
+        assertEquals(result.getScore(), last.getScore());
+    }
+
+    @Test
+    public void testErrorCompletesFuture() throws Exception {
+        SearchController controller = new SearchController(1, 16);
+        CompletableFuture<SearchResult> future = controller.searchAsync(new ChessGame(), SearchLimits.depth(3), info -> {
+            throw new StackOverflowError("listener");
+        });
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof StackOverflowError);
+        assertFalse(controller.isSearching());
+    }
+}
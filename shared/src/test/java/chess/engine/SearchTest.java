@@ -0,0 +1,124 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+
+    @Test
+    public void testMateInOne() {
+        SearchResult result = new Search().search(Fen.parse("7k/8/6K1/8/8/8/8/R7 w - - 0 1"), SearchLimits.depth(4));
+        assertEquals(move("a1a8"), result.getBestMove());
+        assertEquals(Search.MATE_SCORE - 1, result.getScore());
+        assertTrue(Search.isMateScore(result.getScore()));
+    }
+
+    @Test
+    public void testMateInTwo() {
+        // Kb6 takes a7 and b7 from the king, then the rook mates on the eighth rank
+        SearchResult result = new Search().search(Fen.parse("k7/8/2K5/8/8/8/8/7R w - - 0 1"), SearchLimits.depth(6));
+        assertEquals(Search.MATE_SCORE - 3, result.getScore());
+        assertEquals(3, result.getPrincipalVariation().size());
+    }
+
+    @Test
+    public void testBeingMatedInOne() {
+        // Black's only move runs into Ra8 mate
+        ChessGame game = Fen.parse("7k/8/6K1/8/8/8/8/R7 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        assertEquals(-Search.MATE_SCORE + 2, result.getScore());
+    }
+
+    @Test
+    public void testCheckmatedRoot() {
+        ChessGame game = Fen.parse("7k/6Q1/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertNull(result.getBestMove());
+        assertEquals(-Search.MATE_SCORE, result.getScore());
+        assertEquals(0, result.getDepth());
+    }
+
+    @Test
+    public void testStalematedRoot() {
+        ChessGame game = Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertNull(result.getBestMove());
+        assertEquals(0, result.getScore());
+    }
+
+    @Test
+    public void testLosingSideRepeats() throws InvalidMoveException {
+        // Down a queen, white can only shuffle its king; Ka2 returns to a position already seen
+        String fen = "7k/8/8/8/7q/8/8/K7 w - - 0 1";
+        assertTrue(new Search().search(Fen.parse(fen), SearchLimits.depth(2)).getScore() < -500);
+
+        ChessGame game = Fen.parse(fen);
+        for (String step : new String[]{"a1a2", "h8g8", "a2a1", "g8h8"}) {
+            game.makeMove(move(step));
+        }
+        SearchResult result = new Search().search(game, SearchLimits.depth(2));
+        assertEquals(move("a1a2"), result.getBestMove());
+        assertEquals(0, result.getScore());
+    }
+
+    @Test
+    public void testFiftyMoveRule() {
+        // Any queen or king move is the hundredth halfmove, so a queen up is only a draw
+        assertTrue(new Search().search(Fen.parse("7k/8/8/8/8/8/8/Q6K w - - 0 1"), SearchLimits.depth(3)).getScore() > 500);
+        assertEquals(0, new Search().search(Fen.parse("7k/8/8/8/8/8/8/Q6K w - - 99 1"), SearchLimits.depth(3)).getScore());
+    }
+
+    @Test
+    public void testDepthLimit() {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertEquals(3, result.getDepth());
+        assertTrue(game.isLegal(result.getBestMove()));
+        assertEquals(Fen.START_POSITION, Fen.format(game));
+        assertEquals(0, game.getUndoDepth());
+    }
+
+    @Test
+    public void testNodeLimit() {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Search().search(game, SearchLimits.nodes(5000));
+        assertTrue(result.getNodes() <= 5000, "searched " + result.getNodes());
+        assertTrue(game.isLegal(result.getBestMove()));
+        assertEquals(Fen.START_POSITION, Fen.format(game));
+    }
+
+    @Test
+    public void testTimeLimit() {
+        ChessGame game = new ChessGame();
+        long start = System.nanoTime();
+        SearchResult result = new Search().search(game, SearchLimits.time(100));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(game.isLegal(result.getBestMove()));
+        assertEquals(Fen.START_POSITION, Fen.format(game));
+    }
+
+    @Test
+    public void testStopFromListener() {
+        Search search = new Search();
+        SearchResult result = search.search(new ChessGame(), new SearchLimits(0, 0, 0), info -> {
+            if (info.getDepth() >= 2) {
+                search.stop();
+            }
+        });
+        assertTrue(result.getDepth() >= 2);
+        assertNotNull(result.getBestMove());
+    }
+
+    private static ChessMove move(String text) {
+        return new ChessMove(ChessPosition.of(text.charAt(1) - '0', text.charAt(0) - 'a' + 1),
+                ChessPosition.of(text.charAt(3) - '0', text.charAt(2) - 'a' + 1), null);
+    }
+}
@@ -0,0 +1,51 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticExchangeTest {
+
+    @Test
+    public void testUndefendedCapture() {
+        assertEquals(100, see("4k3/8/8/4p3/8/5N2/8/4K3 w - - 0 1", "f3e5", null));
+    }
+
+    @Test
+    public void testDefendedCapture() {
+        // Nxe5 dxe5 loses the knight for a pawn
+        assertEquals(-220, see("4k3/8/3p4/4p3/8/5N2/8/4K3 w - - 0 1", "f3e5", null));
+    }
+
+    @Test
+    public void testXrayRecapture() {
+        // Alone, Rxe5 Rxe5 loses the exchange; the rook behind on e1 recaptures through e2
+        assertEquals(-400, see("4r1k1/8/8/4p3/8/8/4R3/5K2 w - - 0 1", "e2e5", null));
+        assertEquals(100, see("4r1k1/8/8/4p3/8/8/4R3/4RK2 w - - 0 1", "e2e5", null));
+    }
+
+    @Test
+    public void testKingDoesNotRecaptureOntoDefendedSquare() {
+        assertEquals(-800, see("8/8/8/4k3/3p4/8/8/3QK3 w - - 0 1", "d1d4", null));
+        // With the rook on d8 guarding d4, Kxd4 is illegal, so the queen wins the pawn
+        assertEquals(100, see("3R4/8/8/4k3/3p4/8/8/3QK3 w - - 0 1", "d1d4", null));
+    }
+
+    @Test
+    public void testPromotion() {
+        assertEquals(800, see("8/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7e8", ChessPiece.PieceType.QUEEN));
+        // Rxe8 takes the new queen, leaving only the rook's worth of the pawn
+        assertEquals(-100, see("r7/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7e8", ChessPiece.PieceType.QUEEN));
+        assertEquals(1300, see("3r4/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7d8", ChessPiece.PieceType.QUEEN));
+    }
+
+    private static int see(String fen, String move, ChessPiece.PieceType promotion) {
+        ChessMove chessMove = new ChessMove(new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), promotion);
+        return StaticExchange.evaluate(Fen.parse(fen).getBoard(), chessMove);
+    }
+}
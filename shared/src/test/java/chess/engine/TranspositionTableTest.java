@@ -0,0 +1,118 @@
+package chess.engine;
+
+import chess.Move;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    // A 1 MB table has 32768 buckets, so keys that differ only above bit 15 share a bucket
+    private static final long SAME_BUCKET = 1L << 20;
+
+    private TranspositionTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new TranspositionTable(1);
+        table.newSearch();
+    }
+
+    @Test
+    public void testStoreProbeRoundTrip() {
+        long key = 0x123456789ABCDEF0L;
+        int move = Move.encode(12, 28, null, Move.FLAG_DOUBLE_PUSH);
+        table.store(key, move, -123, 7, TranspositionTable.BOUND_LOWER);
+
+        long data = table.probe(key);
+        assertNotEquals(0L, data);
+        assertEquals(move, TranspositionTable.move(data));
+        assertEquals(-123, TranspositionTable.score(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(data));
+
+        assertEquals(0L, table.probe(key ^ 1));
+        assertEquals(2L, table.getProbes());
+        assertEquals(1L, table.getHits());
+    }
+
+    @Test
+    public void testRestoreKeepsMoveWhenNoneGiven() {
+        long key = 42;
+        int move = Move.encode(6, 21, null, 0);
+        table.store(key, move, 10, 3, TranspositionTable.BOUND_EXACT);
+        table.store(key, Move.NONE, 20, 5, TranspositionTable.BOUND_UPPER);
+
+        long data = table.probe(key);
+        assertEquals(move, TranspositionTable.move(data));
+        assertEquals(20, TranspositionTable.score(data));
+        assertEquals(5, TranspositionTable.depth(data));
+    }
+
+    @Test
+    public void testMateScoresAreStoredRelativeToThePosition() {
+        // Mate in 5 plies from the root, found at ply 3, is mate in 2 from the stored position
+        int score = Search.MATE_SCORE - 5;
+        int stored = TranspositionTable.scoreToTable(score, 3);
+        assertEquals(Search.MATE_SCORE - 2, stored);
+        assertEquals(Search.MATE_SCORE - 9, TranspositionTable.scoreFromTable(stored, 7));
+
+        int mated = -Search.MATE_SCORE + 6;
+        assertEquals(-Search.MATE_SCORE + 2, TranspositionTable.scoreToTable(mated, 4));
+        assertEquals(mated, TranspositionTable.scoreFromTable(TranspositionTable.scoreToTable(mated, 4), 4));
+
+        assertEquals(250, TranspositionTable.scoreToTable(250, 9));
+        assertEquals(-250, TranspositionTable.scoreFromTable(-250, 9));
+    }
+
+    @Test
+    public void testDeeperEntrySurvivesReplacement() {
+        long deep = 7;
+        long shallow = deep + SAME_BUCKET;
+        long incoming = deep + 2 * SAME_BUCKET;
+        table.store(deep, Move.NONE, 1, 10, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, Move.NONE, 2, 2, TranspositionTable.BOUND_EXACT);
+        table.store(incoming, Move.NONE, 3, 5, TranspositionTable.BOUND_EXACT);
+
+        assertNotEquals(0L, table.probe(deep));
+        assertEquals(0L, table.probe(shallow));
+        assertNotEquals(0L, table.probe(incoming));
+    }
+
+    @Test
+    public void testOldEntriesAreReplacedFirst() {
+        long old = 9;
+        long recent = old + SAME_BUCKET;
+        long incoming = old + 2 * SAME_BUCKET;
+        table.store(old, Move.NONE, 1, 10, TranspositionTable.BOUND_EXACT);
+        // Three searches later the deep entry counts as depth 10 - 3 * 4 = -2
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        table.store(recent, Move.NONE, 2, 2, TranspositionTable.BOUND_EXACT);
+        table.store(incoming, Move.NONE, 3, 1, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(0L, table.probe(old));
+        assertNotEquals(0L, table.probe(recent));
+        assertNotEquals(0L, table.probe(incoming));
+    }
+
+    @Test
+    public void testHashfullSamplesCurrentSearch() {
+        assertEquals(0, table.getHashfull());
+
+        // The first 1000 entries are sampled; one entry in each of the first 500 buckets fills half of them
+        for (long key = 0; key < 500; key++) {
+            table.store(key, Move.NONE, 0, 1, TranspositionTable.BOUND_EXACT);
+        }
+        assertEquals(500, table.getHashfull());
+
+        table.newSearch();
+        assertEquals(0, table.getHashfull());
+
+        table.clear();
+        assertEquals(0L, table.probe(1));
+        assertEquals(1L, table.getProbes());
+    }
+}